@@ -0,0 +1,165 @@
+package th.ac.kmutt.cpe.algorithm.maze;
+
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import th.ac.kmutt.cpe.algorithm.maze.method.Run;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveMetrics;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveOptions;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+
+// Headless entry point: solves maze files without any window, rendering or
+// animation delay and reports the measured numbers as CSV or JSON.
+//
+//   java -Djava.awt.headless=true -cp bin th.ac.kmutt.cpe.algorithm.maze.Batch \
+//       [--algo Dijkstra,A*,BFS,Genetic] [--race] [--format csv|json] [--out results.csv]
+//       [--pop 140] [--gen 300] [--mut 5] [--bias 80] [--elite 14] [--two-point] [--seed 42] [--threads 0]
+//       [--selection truncation|tournament] [--tournament 3]
+//       [--islands 1] [--migrate 20] [--migrants 2] [--topology ring|all]
+//       [--generations gens.csv] [--timeout ms] [--ara-weight 3.0] [--ara-step 0.5] maze files...
+// Each row carries the solve's SolveMetrics counters; --generations also
+// writes one CSV row per ranked GA generation. --timeout gives every solve a
+// wall-clock budget; a solve that runs out reports its partial result with
+// cancelled set. For the anytime engines (ARA*, Anytime GA) it is the
+// deadline they improve their route until, so reaching it leaves cancelled
+// unset, and bound holds the final route's suboptimality bound.
+public class Batch {
+    private static final String DEFAULT_ALGORITHMS = "Dijkstra,A*,BFS,Genetic";
+
+    public static void main(String[] args) throws IOException {
+        List<String> algorithms = Arrays.asList(DEFAULT_ALGORITHMS.split(","));
+        String format = "csv";
+        String out = null;
+        String generationsOut = null;
+        boolean race = false;
+        SolveOptions options = new SolveOptions();
+        List<String> files = new ArrayList<>();
+
+        for (int i = 0; i < args.length; i++) {
+            String a = args[i];
+            switch (a) {
+                case "--algo": algorithms = Arrays.asList(value(args, ++i, a).split(",")); break;
+                case "--format": format = value(args, ++i, a).toLowerCase(); break;
+                case "--out": out = value(args, ++i, a); break;
+                case "--generations": generationsOut = value(args, ++i, a); break;
+                case "--race": race = true; break;
+                case "--timeout": options.timeBudgetMs = Long.parseLong(value(args, ++i, a)); break;
+                case "--ara-weight": options.araInitialWeight = Double.parseDouble(value(args, ++i, a)); break;
+                case "--ara-step": options.araWeightStep = Double.parseDouble(value(args, ++i, a)); break;
+                case "--pop": options.gaPopulation = Integer.parseInt(value(args, ++i, a)); break;
+                case "--gen": options.gaGenerations = Integer.parseInt(value(args, ++i, a)); break;
+                case "--mut": options.gaMutationRate = Double.parseDouble(value(args, ++i, a)) / 100.0; break;
+                case "--bias": options.gaGoalBias = Double.parseDouble(value(args, ++i, a)) / 100.0; break;
+                case "--elite": options.gaElitismCount = Integer.parseInt(value(args, ++i, a)); break;
+                case "--two-point": options.gaTwoPointCrossover = true; break;
+                case "--seed": options.gaSeed = Long.parseLong(value(args, ++i, a)); break;
+                case "--threads": options.gaThreads = Integer.parseInt(value(args, ++i, a)); break;
+                case "--selection":
+                    try {
+                        options.gaSelection = SolveOptions.SelectionStrategy.valueOf(value(args, ++i, a).toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        usage("Unknown selection " + args[i]);
+                    }
+                    break;
+                case "--tournament": options.gaTournamentSize = Integer.parseInt(value(args, ++i, a)); break;
+                case "--islands": options.gaIslands = Integer.parseInt(value(args, ++i, a)); break;
+                case "--migrate": options.gaMigrationInterval = Integer.parseInt(value(args, ++i, a)); break;
+                case "--migrants": options.gaMigrants = Integer.parseInt(value(args, ++i, a)); break;
+                case "--topology":
+                    try {
+                        options.gaTopology = SolveOptions.MigrationTopology.valueOf(value(args, ++i, a).toUpperCase());
+                    } catch (IllegalArgumentException e) {
+                        usage("Unknown topology " + args[i]);
+                    }
+                    break;
+                default:
+                    if (a.startsWith("--")) usage("Unknown option " + a);
+                    files.add(a);
+            }
+        }
+        if (files.isEmpty()) usage("No maze files given");
+        if (!format.equals("csv") && !format.equals("json")) usage("Unknown format " + format);
+
+        PrintWriter w = out == null
+            ? new PrintWriter(new OutputStreamWriter(System.out, StandardCharsets.UTF_8), true)
+            : new PrintWriter(new OutputStreamWriter(new FileOutputStream(out), StandardCharsets.UTF_8));
+        boolean json = format.equals("json");
+        PrintWriter gw = generationsOut == null ? null
+            : new PrintWriter(new OutputStreamWriter(new FileOutputStream(generationsOut), StandardCharsets.UTF_8));
+        if (gw != null) gw.println("maze,algorithm," + SolveMetrics.generationCsvHeader());
+        if (json) w.println("["); else w.println("maze,algorithm,solved,cost,steps,visited,wall_ms," + SolveMetrics.csvHeader());
+        boolean first = true;
+        for (String file : files) {
+            MazeData data = MazeReader.read(file);
+            Run run = new Run(data);
+            run.setOptions(options);
+            List<SolveResult> results = new ArrayList<>();
+            if (race) {
+                // all algorithms at once; rows come out in finishing order
+                List<String> names = new ArrayList<>();
+                for (String algo : algorithms) names.add(algo.trim());
+                results.addAll(run.race(names));
+            } else {
+                for (String algo : algorithms) results.add(run.runWithAlgorithm(algo.trim()));
+            }
+            for (SolveResult r : results) {
+                double ms = r.wallNanos / 1_000_000.0;
+                if (json) {
+                    w.print(first ? "  " : ",\n  ");
+                    w.printf(Locale.ROOT, "{\"maze\": \"%s\", \"algorithm\": \"%s\", \"solved\": %s, \"cost\": %s, \"steps\": %s, \"visited\": %s, \"wall_ms\": %.3f, %s}",
+                        escape(file), escape(r.algorithm), r.isSolved(), r.cost, r.steps, r.visited, ms, r.metrics.toJson());
+                } else {
+                    w.printf(Locale.ROOT, "%s,%s,%s,%s,%s,%s,%.3f,%s%n",
+                        csv(file), csv(r.algorithm), r.isSolved(), blank(r.cost), blank(r.steps), blank(r.visited), ms, r.metrics.toCsv());
+                }
+                if (gw != null) {
+                    for (SolveMetrics.Generation g : r.metrics.generations()) {
+                        gw.println(csv(file) + "," + csv(r.algorithm) + "," + SolveMetrics.toCsv(g));
+                    }
+                }
+                first = false;
+                w.flush();
+            }
+        }
+        if (json) w.println("\n]");
+        w.flush();
+        if (out != null) w.close();
+        if (gw != null) gw.close();
+    }
+
+    private static String value(String[] args, int i, String option) {
+        if (i >= args.length) usage("Missing value for " + option);
+        return args[i];
+    }
+
+    private static String blank(Integer v) {
+        return v == null ? "" : v.toString();
+    }
+
+    private static String csv(String s) {
+        if (s.indexOf(',') < 0 && s.indexOf('"') < 0) return s;
+        return "\"" + s.replace("\"", "\"\"") + "\"";
+    }
+
+    private static String escape(String s) {
+        return s.replace("\\", "\\\\").replace("\"", "\\\"");
+    }
+
+    private static void usage(String error) {
+        System.err.println(error);
+        System.err.println("Usage: Batch [--algo Dijkstra,A*,BFS,Genetic,PureGA] [--race] [--format csv|json] [--out file]");
+        System.err.println("             [--pop n] [--gen n] [--mut pct] [--bias pct] [--elite n] [--two-point] [--seed n] [--threads n]");
+        System.err.println("             [--selection truncation|tournament] [--tournament n]");
+        System.err.println("             [--islands n] [--migrate gens] [--migrants n] [--topology ring|all]");
+        System.err.println("             [--generations file] [--timeout ms] [--ara-weight w] [--ara-step s] maze files...");
+        System.exit(2);
+    }
+}
@@ -1,7 +1,10 @@
 package th.ac.kmutt.cpe.algorithm.maze;
 
 import th.ac.kmutt.cpe.algorithm.maze.method.Run;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolverRegistry;
 import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
 import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
 
 public class Main {
@@ -11,15 +14,17 @@ public class Main {
     MazeFrame frame;
     MazeData data;
     private Thread currentRunner;
-    private volatile boolean cancelled = false;
+    // Reset asked for while a run was still unwinding; event thread only
+    private boolean resetPending;
 
     Run run;
 
     public void initFrame() {
-        data = new MazeData(FILE_NAME);
+        data = MazeReader.read(FILE_NAME);
         java.awt.Dimension screen = java.awt.Toolkit.getDefaultToolkit().getScreenSize();
         frame = new MazeFrame("Maze Solver - " + getMazeLabel(), screen.width-50, screen.height-110);
         frame.setMazeFileName(FILE_NAME);
+        frame.setAlgorithms(SolverRegistry.names());
 
         // wire shared data/frame into runner and algorithms
         run = new Run(data, frame);
@@ -27,30 +32,31 @@ public class Main {
         frame.setControlListener(new MazeFrame.ControlListener() {
             @Override
             public void onRunRequested(String algorithmName) {
-                frame.setControlsEnabled(false);
-                cancelled = false;
-                currentRunner = new Thread(() -> {
-                    try {
-                        run.runWithAlgorithm(algorithmName);
-                    } finally {
-                        javax.swing.SwingUtilities.invokeLater(() -> frame.setControlsEnabled(true));
-                    }
-                }, "maze-runner");
-                currentRunner.start();
+                startRunner(() -> run.runWithAlgorithm(algorithmName), "maze-runner");
+            }
+            @Override
+            public void onRaceRequested(java.util.List<String> algorithmNames) {
+                startRunner(() -> run.race(algorithmNames), "maze-race");
             }
             @Override
             public void onResetRequested() {
-                cancelled = true;
+                // The token stops the engines; the interrupt wakes a paused visit.
+                // A run still unwinding clears the view when it ends, so the
+                // event thread never waits on it.
+                run.cancel();
                 if (currentRunner != null && currentRunner.isAlive()) {
                     currentRunner.interrupt();
+                    resetPending = true;
+                } else {
+                    resetState();
                 }
-                resetState();
             }
 
             @Override
             public void onImportRequested(String filePath) {
                 try {
-                    MazeData newData = new MazeData(filePath);
+                    MazeData newData = MazeReader.read(filePath);
+                    MazeFields.invalidate(data);
                     data = newData;
                     // re-wire runner to use new data
                     // BUGFIX: call setData on 'run', not on the anonymous ControlListener
@@ -71,14 +77,29 @@ public class Main {
         frame.render(data);
     }
 
-    private void resetState() {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.visited[i][j] = false;
-                data.path[i][j] = false;
-                data.result[i][j] = false;
+    // Event thread: runs work off it with the controls disabled; once the work
+    // ends they come back, after the reset view if a reset came in meanwhile
+    private void startRunner(Runnable work, String name) {
+        frame.setControlsEnabled(false);
+        currentRunner = new Thread(() -> {
+            try {
+                work.run();
+            } finally {
+                javax.swing.SwingUtilities.invokeLater(() -> {
+                    if (resetPending) {
+                        resetPending = false;
+                        resetState();
+                    }
+                    frame.setControlsEnabled(true);
+                });
             }
-        }
+        }, name);
+        currentRunner.start();
+    }
+
+    private void resetState() {
+        frame.setReplay(null);
+        data.clearMarks();
         frame.setTitle("Maze Solver - " + getMazeLabel());
         frame.render(data);
     }
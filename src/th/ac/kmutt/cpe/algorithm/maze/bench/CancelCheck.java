@@ -0,0 +1,101 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import th.ac.kmutt.cpe.algorithm.maze.method.CancellationToken;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveOptions;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolverRegistry;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeGenerator;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+
+// Cancellation check for the GA engines, exits 1 on any failure:
+//  - first epoch: island runs (4 islands, 0, 1 and 4 threads) cancelled from
+//    another thread after 0 to 2 ms, often before any island has bred; every
+//    solve must return a result instead of throwing
+//  - budget: ARA* and Anytime GA on a generated 1001x1001 braided maze report
+//    cancelled = false when they end at their time budget, and true when the
+//    caller cancels them first
+// Usage: CancelCheck [--runs 200] [maze file] (default: ./MAZE/m100_100.txt)
+public class CancelCheck {
+
+    public static void main(String[] args) throws Exception {
+        int runs = 200;
+        String file = "./MAZE/m100_100.txt";
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--runs")) runs = Integer.parseInt(args[++i]);
+            else file = args[i];
+        }
+        MazeData data = MazeReader.read(file);
+        ScheduledExecutorService canceller = Executors.newSingleThreadScheduledExecutor();
+        int failures = 0;
+        try {
+            failures += checkFirstEpoch(data, runs, canceller);
+            MazeGenerator gen = new MazeGenerator(1001, 1001);
+            gen.topology = MazeGenerator.Topology.BRAIDED;
+            failures += checkBudget(gen.generate(), canceller);
+        } finally {
+            canceller.shutdownNow();
+        }
+        System.out.println(failures == 0 ? "OK" : failures + " failures");
+        if (failures > 0) System.exit(1);
+    }
+
+    private static int checkFirstEpoch(MazeData data, int runs, ScheduledExecutorService canceller) throws Exception {
+        int failures = 0;
+        for (String engine : new String[] { "Genetic", "Anytime GA" }) {
+            for (int threads : new int[] { 0, 1, 4 }) {
+                int bad = 0;
+                for (int r = 0; r < runs; r++) {
+                    SolveOptions options = new SolveOptions();
+                    options.gaIslands = 4;
+                    options.gaThreads = threads;
+                    options.cancellation = new CancellationToken();
+                    long delayNanos = r * 2_000_000L / runs;
+                    CancellationToken token = options.cancellation;
+                    Future<?> cancel = canceller.submit(() -> {
+                        long until = System.nanoTime() + delayNanos;
+                        while (System.nanoTime() < until) Thread.onSpinWait();
+                        token.cancel();
+                    });
+                    try {
+                        SolverRegistry.create(engine).solve(data, options, null);
+                    } catch (RuntimeException e) {
+                        System.out.printf("%s threads=%d delay=%dus: %s%n", engine, threads, delayNanos / 1000, e);
+                        bad++;
+                    }
+                    cancel.get();
+                }
+                System.out.printf("first epoch: %s threads=%d, %d runs, %d failures%n", engine, threads, runs, bad);
+                failures += bad;
+            }
+        }
+        return failures;
+    }
+
+    private static int checkBudget(MazeData data, ScheduledExecutorService canceller) throws Exception {
+        int failures = 0;
+        for (String engine : new String[] { "ARA*", "Anytime GA" }) {
+            SolveOptions options = new SolveOptions();
+            options.timeBudgetMs = 300;
+            // A weight step this small keeps ARA* improving until the budget ends
+            options.araWeightStep = 0.001;
+            SolveResult timed = SolverRegistry.create(engine).solve(data, options, null);
+
+            options.cancellation = new CancellationToken();
+            CancellationToken token = options.cancellation;
+            canceller.schedule(token::cancel, 100, TimeUnit.MILLISECONDS);
+            SolveResult stopped = SolverRegistry.create(engine).solve(data, options, null);
+
+            boolean ok = !timed.metrics.cancelled && stopped.metrics.cancelled;
+            System.out.printf("budget: %s cancelled=%b at the budget (%d ms), %b on cancel (%d ms)%s%n",
+                engine, timed.metrics.cancelled, timed.timeMs(), stopped.metrics.cancelled, stopped.timeMs(),
+                ok ? "" : "  <- wrong");
+            if (!ok) failures++;
+        }
+        return failures;
+    }
+}
@@ -0,0 +1,133 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import th.ac.kmutt.cpe.algorithm.maze.method.Dijkstra;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolverRegistry;
+import th.ac.kmutt.cpe.algorithm.maze.structure.BucketQueue;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeGenerator;
+
+// Correctness check for the exact engines, exits 1 on any mismatch:
+//  - queue: BucketQueue against IndexedMinHeap on random monotone workloads
+//    (pushes within maxCost of the last pop, decrease-keys, queues that drain
+//    and refill); both must pop the same sequence of keys
+//  - solve: Dial and Auto (searching, then off cached fields) against
+//    Dijkstra on MazeGenerator mazes of every topology and weighting over
+//    several seeds; the cost must match Dijkstra's and its own path's cost
+// Usage: ExactnessCheck [--trials 200] [--seeds 8] [--size 101]
+public class ExactnessCheck {
+    private static final List<String> ENGINES = Arrays.asList("Dial", "Auto");
+
+    public static void main(String[] args) {
+        int trials = 200, seeds = 8, size = 101;
+        for (int i = 0; i < args.length; i++) {
+            switch (args[i]) {
+                case "--trials": trials = Integer.parseInt(args[++i]); break;
+                case "--seeds": seeds = Integer.parseInt(args[++i]); break;
+                case "--size": size = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option " + args[i]);
+            }
+        }
+        int failures = checkQueues(trials) + checkSolvers(seeds, size | 1);
+        System.out.println(failures == 0 ? "OK" : failures + " mismatches");
+        if (failures > 0) System.exit(1);
+    }
+
+    private static int checkQueues(int trials) {
+        int failures = 0;
+        for (int t = 0; t < trials; t++) {
+            SplittableRandom rnd = new SplittableRandom(t);
+            int capacity = 2000, maxCost = 1 + rnd.nextInt(t % 2 == 0 ? 9 : 1023);
+            BucketQueue q = new BucketQueue(capacity, maxCost);
+            IndexedMinHeap h = new IndexedMinHeap(capacity);
+            int last = rnd.nextInt(100), fresh = 0;
+            int[] key = new int[capacity];
+            while (fresh < capacity || !h.isEmpty()) {
+                int op = rnd.nextInt(10);
+                if (fresh < capacity && (h.isEmpty() || op < 4)) {
+                    int cell = fresh++;
+                    key[cell] = last + rnd.nextInt(maxCost + 1);
+                    q.pushOrDecrease(cell, key[cell]);
+                    h.pushOrDecrease(cell, key[cell]);
+                } else if (op < 6 && fresh > 0) {
+                    // Lower a cell queued in both, keeping it at or above the last pop
+                    int cell = rnd.nextInt(fresh);
+                    if (!q.contains(cell) || !h.contains(cell) || key[cell] <= last) continue;
+                    key[cell] = last + rnd.nextInt(key[cell] - last);
+                    q.pushOrDecrease(cell, key[cell]);
+                    h.pushOrDecrease(cell, key[cell]);
+                } else if (!h.isEmpty()) {
+                    // Ties may pop different cells; the key sequences must agree
+                    int hk = h.peekKey();
+                    int qc = q.pop();
+                    h.pop();
+                    if (key[qc] != hk) {
+                        System.out.printf("queue trial %d (maxCost %d): q=%d h=%d%n", t, maxCost, key[qc], hk);
+                        failures++;
+                        break;
+                    }
+                    last = hk;
+                }
+            }
+        }
+        System.out.printf("queue: %d trials, %d mismatches%n", trials, failures);
+        return failures;
+    }
+
+    private static int checkSolvers(int seeds, int size) {
+        int failures = 0, mazes = 0;
+        for (MazeGenerator.Topology topology : MazeGenerator.Topology.values()) {
+            for (MazeGenerator.Weights weights : MazeGenerator.Weights.values()) {
+                for (int seed = 1; seed <= seeds; seed++) {
+                    MazeGenerator gen = new MazeGenerator(size, size);
+                    gen.topology = topology;
+                    gen.weights = weights;
+                    gen.seed = seed;
+                    MazeData data = gen.generate();
+                    mazes++;
+                    SolveResult expected = new Dijkstra().solve(data, null, null);
+                    for (String name : ENGINES) {
+                        SolveResult r = SolverRegistry.create(name).solve(data, null, null);
+                        if (!check(data, r, expected)) {
+                            System.out.printf("%s on %s/%s seed %d: cost %s, path costs %s, Dijkstra %s%n",
+                                r.algorithm, topology, weights, seed, r.cost, routeCost(data, r.path), expected.cost);
+                            failures++;
+                        }
+                    }
+                    // Auto again, reading the route off the cached fields
+                    MazeFields.of(data).costToGoal();
+                    SolveResult cached = SolverRegistry.create("Auto").solve(data, null, null);
+                    MazeFields.invalidate(data);
+                    if (!check(data, cached, expected)) {
+                        System.out.printf("%s on %s/%s seed %d: cost %s, path costs %s, Dijkstra %s%n",
+                            cached.algorithm, topology, weights, seed, cached.cost, routeCost(data, cached.path), expected.cost);
+                        failures++;
+                    }
+                }
+            }
+        }
+        System.out.printf("solve: %d mazes x %s + cached Auto, %d mismatches%n", mazes, ENGINES, failures);
+        return failures;
+    }
+
+    // Same cost as Dijkstra, and the engine's own path costs that much
+    private static boolean check(MazeData data, SolveResult r, SolveResult expected) {
+        return same(r.cost, expected.cost) && same(routeCost(data, r.path), expected.cost);
+    }
+
+    private static boolean same(Integer a, Integer b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    private static Integer routeCost(MazeData data, int[] path) {
+        if (path == null) return null;
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) cost += data.stepCost(path[i]);
+        return cost;
+    }
+}
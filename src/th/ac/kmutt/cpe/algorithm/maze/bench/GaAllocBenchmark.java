@@ -0,0 +1,127 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.io.File;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import th.ac.kmutt.cpe.algorithm.maze.method.GenomeWalker;
+import th.ac.kmutt.cpe.algorithm.maze.method.PackedGenome;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+
+// Bytes allocated and time per genome evaluation: the previous GA kernel
+// (boolean[N][M] per genome, ArrayList path, int[2] per step, int[] genomes)
+// versus the reusable GenomeWalker over packed genomes. Allocation is read
+// from the JVM's per-thread counter, the same number JMH's -prof gc reports
+// as gc.alloc.rate.norm.
+// Usage: GaAllocBenchmark [files...] (default: ./MAZE/*.txt)
+public class GaAllocBenchmark {
+    private static final int POPULATION = 1000;
+    private static final int WARMUP = 10;
+    private static final int ROUNDS = 20;
+    private static final int[][] DIRECTIONS = MazeData.DIRECTIONS;
+
+    public static void main(String[] args) {
+        List<String> files = new ArrayList<>(Arrays.asList(args));
+        if (files.isEmpty()) {
+            File[] found = new File("./MAZE").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (found != null) {
+                Arrays.sort(found);
+                for (File f : found) files.add(f.getPath());
+            }
+        }
+        com.sun.management.ThreadMXBean threads = (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        System.out.printf("%-24s %8s %14s %14s %12s %12s %6s%n",
+            "file", "genome", "legacy(B/op)", "walker(B/op)", "legacy(ns)", "walker(ns)", "same");
+        for (String file : files) {
+            MazeData data = MazeReader.read(file);
+            int[] distMap = MazeFields.of(data).stepsToGoal();
+            int genomeLength = Math.max(data.N() + data.M(), 3 * distMap[data.getEntrance()]);
+            SplittableRandom rnd = new SplittableRandom(42);
+            int[][] pop = new int[POPULATION][genomeLength];
+            PackedGenome[] packed = new PackedGenome[POPULATION];
+            for (int i = 0; i < POPULATION; i++) {
+                packed[i] = new PackedGenome(genomeLength);
+                for (int j = 0; j < genomeLength; j++) {
+                    pop[i][j] = rnd.nextInt(4);
+                    packed[i].set(j, pop[i][j]);
+                }
+            }
+
+            GenomeWalker walker = new GenomeWalker(data, distMap, genomeLength);
+            long sink = 0;
+            for (int r = 0; r < WARMUP; r++) {
+                for (int i = 0; i < POPULATION; i++) {
+                    sink += legacyEvaluate(data, distMap, pop[i]) + walkerEvaluate(walker, distMap, data, packed[i]);
+                }
+            }
+            long legacyBytes = 0, walkerBytes = 0, legacyNanos = 0, walkerNanos = 0;
+            boolean same = true;
+            for (int r = 0; r < ROUNDS; r++) {
+                long b0 = threads.getCurrentThreadAllocatedBytes();
+                long t0 = System.nanoTime();
+                long a = 0;
+                for (int[] g : pop) a += legacyEvaluate(data, distMap, g);
+                long t1 = System.nanoTime();
+                long b1 = threads.getCurrentThreadAllocatedBytes();
+                long b = 0;
+                for (PackedGenome g : packed) b += walkerEvaluate(walker, distMap, data, g);
+                long t2 = System.nanoTime();
+                long b2 = threads.getCurrentThreadAllocatedBytes();
+                legacyBytes += b1 - b0;
+                walkerBytes += b2 - b1;
+                legacyNanos += t1 - t0;
+                walkerNanos += t2 - t1;
+                same &= a == b;
+                sink += a;
+            }
+            double ops = (double) ROUNDS * POPULATION;
+            System.out.printf("%-24s %8d %14.1f %14.1f %12.0f %12.0f %6s%n",
+                new File(file).getName(), genomeLength, legacyBytes / ops, walkerBytes / ops,
+                legacyNanos / ops, walkerNanos / ops, same);
+            if (sink == 42) System.out.print("");
+        }
+    }
+
+    // GA fitness with goal bias off, so both kernels see the same moves
+    private static int walkerEvaluate(GenomeWalker walker, int[] distMap, MazeData data, PackedGenome genome) {
+        walker.walk(genome, 0, 0);
+        int cost = walker.routeCost() + walker.invalidMoves() * 50 + walker.revisits() * 2;
+        if (!walker.reached()) cost += goalDistance(data, distMap, walker.end()) * 120;
+        return cost + walker.length();
+    }
+
+    private static int legacyEvaluate(MazeData data, int[] distMap, int[] genome) {
+        boolean[][] seen = new boolean[data.N()][data.M()];
+        int x = data.getEntranceX(), y = data.getEntranceY();
+        int cost = 0;
+        ArrayList<int[]> path = new ArrayList<>();
+        path.add(new int[]{x, y});
+        seen[x][y] = true;
+        for (int i = 0; i < genome.length; i++) {
+            int[] d = DIRECTIONS[genome[i] % 4];
+            int nx = x + d[0], ny = y + d[1];
+            if (!data.inArea(nx, ny) || !data.isRoad(data.index(nx, ny))) {
+                cost += 50;
+                continue;
+            }
+            x = nx; y = ny;
+            cost += data.stepCost(data.index(x, y));
+            if (!seen[x][y]) seen[x][y] = true; else cost += 2;
+            path.add(new int[]{x, y});
+            if (x == data.getExitX() && y == data.getExitY()) break;
+        }
+        boolean reached = x == data.getExitX() && y == data.getExitY();
+        if (!reached) cost += goalDistance(data, distMap, data.index(x, y)) * 120;
+        return cost + path.size();
+    }
+
+    private static int goalDistance(MazeData data, int[] distMap, int cell) {
+        int manhattan = Math.abs(data.cellX(cell) - data.getExitX()) + Math.abs(data.cellY(cell) - data.getExitY());
+        int d = distMap[cell];
+        return d == MazeFields.UNREACHABLE ? manhattan * 5 : d;
+    }
+}
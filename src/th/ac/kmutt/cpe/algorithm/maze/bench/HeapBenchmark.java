@@ -0,0 +1,149 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.PriorityQueue;
+import th.ac.kmutt.cpe.algorithm.maze.method.AStar;
+import th.ac.kmutt.cpe.algorithm.maze.method.Dijkstra;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.method.Solver;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeGenerator;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Dijkstra and A* on the indexed heap versus the previous java.util.PriorityQueue
+// of Node objects with lazy deletion, on the given files (default ./MAZE/*.txt)
+// plus braided MazeGenerator grids of the given sizes. Each pair gets a warmup
+// of at least WARMUP runs and WARMUP_NANOS, then ROUNDS runs with the two
+// versions alternating which goes first; the median and minimum per run are
+// reported, and the speedup is the ratio of medians.
+// Usage: HeapBenchmark [--sizes 501,1001,2001] [files...]
+public class HeapBenchmark {
+    private static final int WARMUP = 30;
+    private static final long WARMUP_NANOS = 1_000_000_000L;
+    private static final int ROUNDS = 41;
+
+    private interface Run {
+        // {cost or -1, pushes}
+        long[] run();
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = { 501, 1001, 2001 };
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--sizes")) {
+                String v = args[++i];
+                sizes = v.isEmpty() ? new int[0] : Arrays.stream(v.split(",")).mapToInt(Integer::parseInt).toArray();
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            File[] found = new File("./MAZE").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (found != null) {
+                Arrays.sort(found);
+                for (File f : found) files.add(f.getPath());
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (String file : files) names.add(new File(file).getName());
+        List<File> generated = new ArrayList<>();
+        for (int size : sizes) {
+            File f = File.createTempFile("heap" + size + "_", ".txt");
+            f.deleteOnExit();
+            MazeGenerator gen = new MazeGenerator(size | 1, size | 1);
+            gen.topology = MazeGenerator.Topology.BRAIDED;
+            gen.write(f.getPath(), MazeGenerator.Format.WEIGHTED);
+            files.add(f.getPath());
+            names.add("generated " + (size | 1));
+            generated.add(f);
+        }
+
+        System.out.printf("%-18s %-8s %10s %12s %12s %12s %12s %10s %8s %5s%n", "maze", "search", "cells",
+            "pq med(us)", "pq min(us)", "idx med(us)", "idx min(us)", "pq-pushes", "speedup", "same");
+        for (int k = 0; k < files.size(); k++) {
+            MazeData data = MazeReader.read(files.get(k));
+            compare(names.get(k), "Dijkstra", data, () -> priorityQueueSearch(data, false), new Dijkstra());
+            compare(names.get(k), "A*", data, () -> priorityQueueSearch(data, true), new AStar());
+        }
+        for (File f : generated) f.delete();
+    }
+
+    private static void compare(String name, String search, MazeData data, Run legacy, Solver engine) {
+        long start = System.nanoTime();
+        for (int i = 0; i < WARMUP || System.nanoTime() - start < WARMUP_NANOS; i++) {
+            legacy.run();
+            engine.solve(data, null, null);
+        }
+        long[] legacyTimes = new long[ROUNDS], indexedTimes = new long[ROUNDS];
+        long[] legacyResult = null;
+        SolveResult result = null;
+        for (int i = 0; i < ROUNDS; i++) {
+            boolean legacyFirst = (i & 1) == 0;
+            if (!legacyFirst) {
+                long t0 = System.nanoTime();
+                result = engine.solve(data, null, null);
+                indexedTimes[i] = System.nanoTime() - t0;
+            }
+            long t0 = System.nanoTime();
+            legacyResult = legacy.run();
+            legacyTimes[i] = System.nanoTime() - t0;
+            if (legacyFirst) {
+                t0 = System.nanoTime();
+                result = engine.solve(data, null, null);
+                indexedTimes[i] = System.nanoTime() - t0;
+            }
+        }
+        Arrays.sort(legacyTimes);
+        Arrays.sort(indexedTimes);
+        double lm = legacyTimes[ROUNDS / 2] / 1000.0, im = indexedTimes[ROUNDS / 2] / 1000.0;
+        boolean same = result.cost != null ? result.cost == legacyResult[0] : legacyResult[0] < 0;
+        System.out.printf("%-18s %-8s %10d %12.1f %12.1f %12.1f %12.1f %10d %7.2fx %5s%n", name, search,
+            data.cellCount(), lm, legacyTimes[0] / 1000.0, im, indexedTimes[0] / 1000.0, legacyResult[1],
+            lm / Math.max(im, 1e-9), same);
+    }
+
+    private static final class Node {
+        final int cell, cost, key;
+        final Node prev;
+        Node(int cell, int cost, int key, Node prev) { this.cell = cell; this.cost = cost; this.key = key; this.prev = prev; }
+    }
+
+    // The pre-heap implementation: a fresh Node per relaxation, stale entries
+    // skipped on poll; with heuristic set it is the old A*, keyed by g + Manhattan.
+    // Returns {cost or -1, total pushes}.
+    private static long[] priorityQueueSearch(MazeView data, boolean heuristic) {
+        int[] dist = new int[data.cellCount()];
+        boolean[] settled = new boolean[data.cellCount()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        int start = data.getEntrance(), exit = data.getExit();
+        int gx = data.cellX(exit), gy = data.cellY(exit);
+        dist[start] = 0;
+        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.key));
+        pq.add(new Node(start, 0, 0, null));
+        long pushes = 1;
+        while (!pq.isEmpty()) {
+            Node cur = pq.poll();
+            if (settled[cur.cell]) continue;
+            settled[cur.cell] = true;
+            if (cur.cell == exit) return new long[] { cur.cost, pushes };
+            for (int d = 0; d < 4; d++) {
+                int next = data.neighbor(cur.cell, d);
+                if (next < 0 || !data.isRoad(next) || settled[next]) continue;
+                int newCost = cur.cost + data.stepCost(next);
+                if (newCost < dist[next]) {
+                    dist[next] = newCost;
+                    int h = heuristic ? Math.abs(data.cellX(next) - gx) + Math.abs(data.cellY(next) - gy) : 0;
+                    pq.add(new Node(next, newCost, newCost + h, cur));
+                    pushes++;
+                }
+            }
+        }
+        return new long[] { -1, pushes };
+    }
+}
@@ -0,0 +1,96 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import th.ac.kmutt.cpe.algorithm.maze.method.GenomeWalker;
+import th.ac.kmutt.cpe.algorithm.maze.method.PackedGenome;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+
+// Child evaluation by full walk versus resuming from the first parent's
+// checkpoints, for children bred by one-point crossover plus mutation at a
+// few rates. Also checks that both give identical walks.
+// Usage: IncrementalEvalBenchmark [files...] (default: ./MAZE/*.txt)
+public class IncrementalEvalBenchmark {
+    private static final int POPULATION = 500;
+    private static final int ROUNDS = 20;
+    private static final double GOAL_BIAS = 0.8;
+    private static final double[] MUTATION_RATES = { 0.002, 0.01, 0.05 };
+
+    public static void main(String[] args) {
+        List<String> files = new ArrayList<>(Arrays.asList(args));
+        if (files.isEmpty()) {
+            File[] found = new File("./MAZE").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (found != null) {
+                Arrays.sort(found);
+                for (File f : found) files.add(f.getPath());
+            }
+        }
+        System.out.printf("%-24s %8s %6s %12s %12s %8s %6s%n",
+            "file", "genome", "mut", "full(ns)", "resume(ns)", "speedup", "same");
+        for (String file : files) {
+            MazeData data = MazeReader.read(file);
+            int[] distMap = MazeFields.of(data).stepsToGoal();
+            int genomeLength = 3 * (data.N() + data.M());
+            SplittableRandom rnd = new SplittableRandom(42);
+            GenomeWalker walker = new GenomeWalker(data, distMap, genomeLength);
+
+            PackedGenome[] parents = new PackedGenome[POPULATION];
+            GenomeWalker.Track[] parentTracks = new GenomeWalker.Track[POPULATION];
+            for (int i = 0; i < POPULATION; i++) {
+                parents[i] = new PackedGenome(genomeLength);
+                parents[i].randomize(rnd);
+                parentTracks[i] = new GenomeWalker.Track(genomeLength);
+                walker.walk(parents[i], GOAL_BIAS, rnd.nextLong(), parentTracks[i]);
+            }
+
+            for (double rate : MUTATION_RATES) {
+                PackedGenome[] children = new PackedGenome[POPULATION];
+                int[] parentOf = new int[POPULATION];
+                int[] dirty = new int[POPULATION];
+                for (int i = 0; i < POPULATION; i++) {
+                    parentOf[i] = rnd.nextInt(POPULATION);
+                    int cut = 1 + rnd.nextInt(genomeLength - 1);
+                    children[i] = new PackedGenome(genomeLength);
+                    PackedGenome.onePoint(parents[parentOf[i]], parents[rnd.nextInt(POPULATION)], cut, children[i]);
+                    dirty[i] = Math.min(cut, children[i].mutate(rate, rnd));
+                }
+                GenomeWalker.Track full = new GenomeWalker.Track(genomeLength);
+                GenomeWalker.Track resumed = new GenomeWalker.Track(genomeLength);
+                boolean same = true;
+                long fullNanos = 0, resumeNanos = 0, sink = 0;
+                for (int r = 0; r < ROUNDS + 5; r++) {
+                    long t0 = System.nanoTime();
+                    for (int i = 0; i < POPULATION; i++) {
+                        walker.walk(children[i], GOAL_BIAS, parentTracks[parentOf[i]].seed(), full);
+                        sink += walker.routeCost();
+                    }
+                    long t1 = System.nanoTime();
+                    for (int i = 0; i < POPULATION; i++) {
+                        walker.resume(children[i], GOAL_BIAS, parentTracks[parentOf[i]], dirty[i], resumed);
+                        sink += walker.routeCost();
+                    }
+                    long t2 = System.nanoTime();
+                    if (r >= 5) {
+                        fullNanos += t1 - t0;
+                        resumeNanos += t2 - t1;
+                    }
+                }
+                for (int i = 0; i < POPULATION && same; i++) {
+                    walker.walk(children[i], GOAL_BIAS, parentTracks[parentOf[i]].seed(), full);
+                    walker.resume(children[i], GOAL_BIAS, parentTracks[parentOf[i]], dirty[i], resumed);
+                    same = Arrays.equals(full.copyTrail(), resumed.copyTrail());
+                }
+                double ops = (double) ROUNDS * POPULATION;
+                System.out.printf("%-24s %8d %6.3f %12.0f %12.0f %7.2fx %6s%n",
+                    new File(file).getName(), genomeLength, rate, fullNanos / ops, resumeNanos / ops,
+                    fullNanos / (double) Math.max(1, resumeNanos), same);
+                if (sink == 42) System.out.print("");
+            }
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeBinary;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+
+// Load-time comparison between the Scanner-based MazeData(String) constructor,
+// the streaming MazeReader and the same maze converted to MazeBinary. Usage: LoadBenchmark [files...] (default: ./MAZE/*.txt)
+public class LoadBenchmark {
+    private static final int WARMUP = 20;
+    private static final int ITERATIONS = 50;
+
+    public static void main(String[] args) throws IOException {
+        List<String> files = new ArrayList<>(Arrays.asList(args));
+        if (files.isEmpty()) {
+            File[] found = new File("./MAZE").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (found != null) {
+                Arrays.sort(found);
+                for (File f : found) files.add(f.getPath());
+            }
+        }
+        System.out.printf("%-24s %10s %12s %12s %12s %8s %6s%n",
+            "file", "bytes", "scanner(us)", "reader(us)", "binary(us)", "speedup", "same");
+        for (String file : files) {
+            File bin = File.createTempFile("maze", ".mzb");
+            bin.deleteOnExit();
+            MazeBinary.write(MazeReader.read(file), bin.getPath());
+            for (int i = 0; i < WARMUP; i++) {
+                new MazeData(file);
+                MazeReader.read(file);
+                MazeBinary.read(bin.getPath());
+            }
+            long scanner = 0, reader = 0, binary = 0;
+            for (int i = 0; i < ITERATIONS; i++) {
+                long t0 = System.nanoTime();
+                new MazeData(file);
+                long t1 = System.nanoTime();
+                MazeReader.read(file);
+                long t2 = System.nanoTime();
+                MazeBinary.read(bin.getPath());
+                long t3 = System.nanoTime();
+                scanner += t1 - t0;
+                reader += t2 - t1;
+                binary += t3 - t2;
+            }
+            double su = scanner / 1000.0 / ITERATIONS;
+            double ru = reader / 1000.0 / ITERATIONS;
+            double bu = binary / 1000.0 / ITERATIONS;
+            MazeData reference = new MazeData(file);
+            boolean same = sameGrid(reference, MazeReader.read(file)) && sameGrid(reference, MazeBinary.read(bin.getPath()));
+            System.out.printf("%-24s %10d %12.1f %12.1f %12.1f %7.2fx %6s%n",
+                new File(file).getName(), new File(file).length(), su, ru, bu, su / Math.max(ru, 1e-9), same);
+            bin.delete();
+        }
+    }
+
+    private static boolean sameGrid(MazeData a, MazeData b) {
+        if (a.N() != b.N() || a.M() != b.M()) return false;
+        if (a.getEntrance() != b.getEntrance() || a.getExit() != b.getExit()) return false;
+        for (int c = 0; c < a.cellCount(); c++) {
+            if (a.isRoad(c) != b.isRoad(c) || a.getWeight(c) != b.getWeight(c)) return false;
+        }
+        return true;
+    }
+}
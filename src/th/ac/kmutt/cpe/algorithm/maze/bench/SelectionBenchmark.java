@@ -0,0 +1,131 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import th.ac.kmutt.cpe.algorithm.maze.method.Selection;
+
+// Per-generation ranking and parent picking for the GA at populations of 1k to
+// 10k: the previous list of Candidate objects fully sorted by comparator,
+// versus primitive keys with a quickselect of the parent pool (truncation) and
+// tournaments over the whole population. Costs are synthetic, with about a
+// tenth of the genomes reaching the goal; "same" checks that the list sort and
+// the quickselect agree on the elites.
+// Usage: SelectionBenchmark [populations...] (default: 1000 2000 5000 10000)
+public class SelectionBenchmark {
+    private static final int WARMUP = 200;
+    private static final int ROUNDS = 500;
+    private static final int ELITES = 14;
+    private static final int POOL = 20;
+    private static final int TOURNAMENT = 3;
+
+    private static final class Candidate {
+        final int index;
+        final int cost;
+        final boolean reached;
+        Candidate(int index, int cost, boolean reached) {
+            this.index = index; this.cost = cost; this.reached = reached;
+        }
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = { 1000, 2000, 5000, 10000 };
+        if (args.length > 0) {
+            sizes = new int[args.length];
+            for (int i = 0; i < args.length; i++) sizes[i] = Integer.parseInt(args[i]);
+        }
+        System.out.printf("%-10s %12s %12s %14s %8s %6s%n",
+            "population", "sort(us)", "select(us)", "tournament(us)", "speedup", "same");
+        for (int size : sizes) {
+            SplittableRandom rnd = new SplittableRandom(42);
+            int[] costs = new int[size];
+            boolean[] reached = new boolean[size];
+            for (int i = 0; i < size; i++) {
+                reached[i] = rnd.nextInt(10) == 0;
+                costs[i] = 200 + rnd.nextInt(5000);
+            }
+            long[] keys = new long[size];
+            long sink = 0;
+            for (int r = 0; r < WARMUP; r++) {
+                sink += sortGeneration(costs, reached, rnd) + selectGeneration(costs, reached, keys, rnd)
+                    + tournamentGeneration(costs, reached, keys, rnd);
+            }
+            long sortNanos = 0, selectNanos = 0, tournamentNanos = 0;
+            for (int r = 0; r < ROUNDS; r++) {
+                long t0 = System.nanoTime();
+                sink += sortGeneration(costs, reached, rnd);
+                long t1 = System.nanoTime();
+                sink += selectGeneration(costs, reached, keys, rnd);
+                long t2 = System.nanoTime();
+                sink += tournamentGeneration(costs, reached, keys, rnd);
+                long t3 = System.nanoTime();
+                sortNanos += t1 - t0;
+                selectNanos += t2 - t1;
+                tournamentNanos += t3 - t2;
+            }
+            System.out.printf("%-10d %12.1f %12.1f %14.1f %7.1fx %6s%n", size,
+                sortNanos / 1e3 / ROUNDS, selectNanos / 1e3 / ROUNDS, tournamentNanos / 1e3 / ROUNDS,
+                sortNanos / (double) Math.max(1, selectNanos), sameElites(costs, reached));
+            if (sink == 42) System.out.print("");
+        }
+    }
+
+    // Previous GA: box every genome, sort all of them, pick from the top POOL
+    private static long sortGeneration(int[] costs, boolean[] reached, SplittableRandom rnd) {
+        int size = costs.length;
+        List<Candidate> candidates = sorted(costs, reached);
+        long sink = 0;
+        for (int i = 0; i < ELITES; i++) sink += candidates.get(i).index;
+        for (int n = ELITES; n < size; n++) {
+            sink += candidates.get(rnd.nextInt(POOL)).index + candidates.get(rnd.nextInt(POOL)).index;
+        }
+        return sink;
+    }
+
+    private static long selectGeneration(int[] costs, boolean[] reached, long[] keys, SplittableRandom rnd) {
+        int size = costs.length;
+        for (int i = 0; i < size; i++) keys[i] = Selection.key(reached[i], costs[i], i);
+        Selection.selectTop(keys, size, POOL);
+        long sink = 0;
+        for (int i = 0; i < ELITES; i++) sink += Selection.index(keys[i]);
+        for (int n = ELITES; n < size; n++) {
+            sink += Selection.index(keys[rnd.nextInt(POOL)]) + Selection.index(keys[rnd.nextInt(POOL)]);
+        }
+        return sink;
+    }
+
+    private static long tournamentGeneration(int[] costs, boolean[] reached, long[] keys, SplittableRandom rnd) {
+        int size = costs.length;
+        for (int i = 0; i < size; i++) keys[i] = Selection.key(reached[i], costs[i], i);
+        Selection.selectTop(keys, size, ELITES);
+        long sink = 0;
+        for (int i = 0; i < ELITES; i++) sink += Selection.index(keys[i]);
+        for (int n = ELITES; n < size; n++) {
+            sink += Selection.tournament(keys, size, TOURNAMENT, rnd) + Selection.tournament(keys, size, TOURNAMENT, rnd);
+        }
+        return sink;
+    }
+
+    private static List<Candidate> sorted(int[] costs, boolean[] reached) {
+        List<Candidate> candidates = new ArrayList<>(costs.length);
+        for (int i = 0; i < costs.length; i++) candidates.add(new Candidate(i, costs[i], reached[i]));
+        candidates.sort((a, b) -> {
+            int c1 = (a.reached ? 0 : 1);
+            int c2 = (b.reached ? 0 : 1);
+            if (c1 != c2) return Integer.compare(c1, c2);
+            return Integer.compare(a.cost, b.cost);
+        });
+        return candidates;
+    }
+
+    private static boolean sameElites(int[] costs, boolean[] reached) {
+        List<Candidate> candidates = sorted(costs, reached);
+        long[] keys = new long[costs.length];
+        for (int i = 0; i < costs.length; i++) keys[i] = Selection.key(reached[i], costs[i], i);
+        Selection.selectTop(keys, costs.length, POOL);
+        for (int i = 0; i < POOL; i++) {
+            if (Selection.index(keys[i]) != candidates.get(i).index) return false;
+        }
+        return true;
+    }
+}
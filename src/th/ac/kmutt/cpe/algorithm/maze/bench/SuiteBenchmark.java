@@ -0,0 +1,259 @@
+package th.ac.kmutt.cpe.algorithm.maze.bench;
+
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.SplittableRandom;
+import th.ac.kmutt.cpe.algorithm.maze.method.GenomeWalker;
+import th.ac.kmutt.cpe.algorithm.maze.method.PackedGenome;
+import th.ac.kmutt.cpe.algorithm.maze.method.Selection;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveListener;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveOptions;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolverRegistry;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeBinary;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeGenerator;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeReader;
+import th.ac.kmutt.cpe.algorithm.maze.ui.MazeRenderer;
+
+// Regression suite over the hot paths, one row per maze and case:
+//  - load: Scanner MazeData(String), streaming MazeReader, MazeBinary
+//  - fields: building both MazeFields fields (BFS + reverse Dijkstra to the exit)
+//  - solve: every registered solver, headless (no listener, no delay); fields
+//    stay cached between rounds as they do in the app
+//  - ga: generations per second of the GA core (walk/resume, rank, breed) at a
+//    fixed population, independent of when a solver would stop early
+//  - paint: MazeRenderer full frame and a 256-cell dirty frame on an offscreen
+//    1600x900 image
+// Mazes are the given files (default ./MAZE/*.txt) plus braided MazeGenerator
+// grids of the given sizes, written to temp files in the weighted format. Each case gets a warmup and then repeats until
+// ROUNDS runs or TARGET_NANOS have passed, so large grids still finish.
+// GA solvers and the Scanner loader are skipped on mazes too large for them.
+// Usage: SuiteBenchmark [--sizes 1000,2000,5000,10000] [--cases load,fields,solve,ga,paint] [files...]
+//        (run with -Djava.awt.headless=true; 10000 needs about -Xmx8g)
+public class SuiteBenchmark {
+    private static final int WARMUP = 3;
+    private static final int ROUNDS = 20;
+    private static final long TARGET_NANOS = 2_000_000_000L;
+    private static final int SCANNER_MAX_CELLS = 4_000_000;
+    // PureGA walks at random until some genome reaches the exit
+    private static final int PURE_GA_MAX_CELLS = 2_500;
+    private static final int GA_SOLVER_MAX_CELLS = 250_000;
+    private static final int GA_POPULATION = 140;
+    private static final int GA_ELITES = 14;
+    private static final int GA_POOL = 20;
+    private static final int GA_GENOME_MAX = 20_000;
+    private static final double GA_MUTATION = 0.05;
+    private static final double GA_BIAS = 0.8;
+    private static final int WIDTH = 1600, HEIGHT = 900;
+    private static final int DIRTY_CELLS = 256;
+
+    private static long sink;
+
+    private interface Case {
+        void run() throws Exception;
+    }
+
+    public static void main(String[] args) throws Exception {
+        int[] sizes = { 1000, 2000, 5000, 10000 };
+        List<String> cases = Arrays.asList("load", "fields", "solve", "ga", "paint");
+        List<String> files = new ArrayList<>();
+        for (int i = 0; i < args.length; i++) {
+            if (args[i].equals("--sizes")) {
+                String v = args[++i];
+                sizes = v.isEmpty() ? new int[0] : Arrays.stream(v.split(",")).mapToInt(Integer::parseInt).toArray();
+            } else if (args[i].equals("--cases")) {
+                cases = Arrays.asList(args[++i].split(","));
+            } else {
+                files.add(args[i]);
+            }
+        }
+        if (files.isEmpty()) {
+            File[] found = new File("./MAZE").listFiles((dir, name) -> name.endsWith(".txt"));
+            if (found != null) {
+                Arrays.sort(found);
+                for (File f : found) files.add(f.getPath());
+            }
+        }
+        List<String> names = new ArrayList<>();
+        for (String file : files) names.add(new File(file).getName());
+        List<File> generated = new ArrayList<>();
+        for (int size : sizes) {
+            File f = File.createTempFile("grid" + size + "_", ".txt");
+            f.deleteOnExit();
+            MazeGenerator gen = new MazeGenerator(size | 1, size | 1);
+            gen.topology = MazeGenerator.Topology.BRAIDED;
+            gen.write(f.getPath(), MazeGenerator.Format.WEIGHTED);
+            files.add(f.getPath());
+            names.add("generated " + (size | 1));
+            generated.add(f);
+        }
+
+        System.out.printf("%-24s %11s %-20s %12s %7s  %s%n", "maze", "cells", "case", "ms/op", "rounds", "info");
+        for (int k = 0; k < files.size(); k++) {
+            String file = files.get(k), name = names.get(k);
+            MazeData data = MazeReader.read(file);
+            if (cases.contains("load")) load(name, file, data);
+            if (cases.contains("fields")) {
+                report(name, data, "fields", measure(() -> {
+                    MazeFields.invalidate(data);
+                    MazeFields fields = MazeFields.of(data);
+                    sink += fields.stepsToGoal().length + fields.costToGoal().length;
+                }), "");
+            }
+            if (cases.contains("solve")) solve(name, data);
+            if (cases.contains("ga")) ga(name, data);
+            if (cases.contains("paint")) paint(name, data);
+            MazeFields.invalidate(data);
+        }
+        for (File f : generated) f.delete();
+        if (sink == 42) System.out.print("");
+    }
+
+    private static void load(String name, String file, MazeData data) throws Exception {
+        File bin = File.createTempFile("maze", ".mzb");
+        bin.deleteOnExit();
+        MazeBinary.write(data, bin.getPath());
+        if (data.cellCount() <= SCANNER_MAX_CELLS) {
+            report(name, data, "load scanner", measure(() -> sink += new MazeData(file).cellCount()), "");
+        }
+        report(name, data, "load reader", measure(() -> sink += MazeReader.read(file).cellCount()),
+            new File(file).length() + " bytes");
+        report(name, data, "load binary", measure(() -> sink += MazeBinary.read(bin.getPath()).cellCount()),
+            bin.length() + " bytes");
+        bin.delete();
+    }
+
+    private static void solve(String name, MazeData data) throws Exception {
+        SolveOptions options = new SolveOptions();
+        for (String algorithm : SolverRegistry.names()) {
+            if (algorithm.equals("PureGA") && data.cellCount() > PURE_GA_MAX_CELLS) continue;
+            if (algorithm.equals("Genetic") && data.cellCount() > GA_SOLVER_MAX_CELLS) continue;
+            // Without a time budget it just runs all gaGenerations; the ga case covers that loop
+            if (algorithm.equals("Anytime GA")) continue;
+            SolveResult[] last = new SolveResult[1];
+            double[] timing = measure(() -> {
+                last[0] = SolverRegistry.create(algorithm).solve(data, options, SolveListener.NONE);
+                sink += last[0].wallNanos;
+            });
+            SolveResult r = last[0];
+            report(name, data, "solve " + algorithm, timing,
+                r.isSolved() ? "cost=" + r.cost + " steps=" + r.steps + " visited=" + r.visited : "no route");
+        }
+    }
+
+    // The generation loop of GeneticAlgorithm's single-population mode without
+    // its early exits: resume each child's walk, rank with primitive keys,
+    // keep the elites and breed the rest by one-point crossover and mutation
+    private static void ga(String name, MazeData data) throws Exception {
+        int[] distMap = MazeFields.of(data).stepsToGoal();
+        int genomeLength = Math.min(GA_GENOME_MAX, 3 * (data.N() + data.M()));
+        GenomeWalker walker = new GenomeWalker(data, distMap, genomeLength);
+        PackedGenome[][] pops = new PackedGenome[2][GA_POPULATION];
+        GenomeWalker.Track[][] tracks = new GenomeWalker.Track[2][GA_POPULATION];
+        for (int p = 0; p < 2; p++) {
+            for (int i = 0; i < GA_POPULATION; i++) {
+                pops[p][i] = new PackedGenome(genomeLength);
+                tracks[p][i] = new GenomeWalker.Track(genomeLength);
+            }
+        }
+        long[] keys = new long[GA_POPULATION];
+        int[] parentOf = new int[GA_POPULATION];
+        int[] firstDirty = new int[GA_POPULATION];
+        SplittableRandom rnd = new SplittableRandom(42);
+        for (int i = 0; i < GA_POPULATION; i++) {
+            pops[0][i].randomize(rnd);
+            walker.walk(pops[0][i], GA_BIAS, rnd.nextLong(), tracks[0][i]);
+            keys[i] = Selection.key(walker.reached(), walker.routeCost(), i);
+        }
+        int[] cur = { 0 };
+        double[] timing = measure(() -> {
+            PackedGenome[] pop = pops[cur[0]], next = pops[1 - cur[0]];
+            GenomeWalker.Track[] tr = tracks[cur[0]], nextTr = tracks[1 - cur[0]];
+            Selection.selectTop(keys, GA_POPULATION, GA_POOL);
+            for (int n = 0; n < GA_POPULATION; n++) {
+                if (n < GA_ELITES) {
+                    int e = Selection.index(keys[n]);
+                    next[n].copyFrom(pop[e]);
+                    parentOf[n] = e;
+                    firstDirty[n] = genomeLength;
+                } else {
+                    int a = Selection.index(keys[rnd.nextInt(GA_POOL)]);
+                    int b = Selection.index(keys[rnd.nextInt(GA_POOL)]);
+                    int cut = 1 + rnd.nextInt(genomeLength - 1);
+                    PackedGenome.onePoint(pop[a], pop[b], cut, next[n]);
+                    parentOf[n] = a;
+                    firstDirty[n] = Math.min(cut, next[n].mutate(GA_MUTATION, rnd));
+                }
+            }
+            for (int n = 0; n < GA_POPULATION; n++) {
+                walker.resume(next[n], GA_BIAS, tr[parentOf[n]], firstDirty[n], nextTr[n]);
+                keys[n] = Selection.key(walker.reached(), walker.routeCost(), n);
+            }
+            cur[0] = 1 - cur[0];
+        });
+        report(name, data, "ga generation", timing,
+            String.format("%.0f gen/s, pop=%d genome=%d", 1e3 / timing[0], GA_POPULATION, genomeLength));
+    }
+
+    private static void paint(String name, MazeData data) throws Exception {
+        MazeRenderer renderer = new MazeRenderer();
+        renderer.setSize(WIDTH, HEIGHT);
+        BufferedImage screen = new BufferedImage(WIDTH, HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = screen.createGraphics();
+        try {
+            renderer.setMaze(data);
+            report(name, data, "paint full", measure(() -> {
+                renderer.markAllDirty();
+                renderer.update();
+                renderer.paint(g);
+            }), WIDTH + "x" + HEIGHT);
+            // Walk a window of road cells along the grid, like a search front
+            int[] roads = new int[DIRTY_CELLS];
+            int found = 0;
+            for (int c = 0; c < data.cellCount() && found < DIRTY_CELLS; c++) {
+                if (data.isRoad(c)) roads[found++] = c;
+            }
+            int count = found;
+            boolean[] on = { true };
+            report(name, data, "paint dirty", measure(() -> {
+                for (int i = 0; i < count; i++) {
+                    data.setPath(roads[i], on[0]);
+                    renderer.markDirty(roads[i]);
+                }
+                on[0] = !on[0];
+                renderer.update();
+                renderer.paint(g);
+            }), count + " cells");
+            data.clearMarks();
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // {mean ms per run, rounds}
+    private static double[] measure(Case c) throws Exception {
+        long start = System.nanoTime();
+        for (int i = 0; i < WARMUP && System.nanoTime() - start < TARGET_NANOS; i++) c.run();
+        long total = 0;
+        int rounds = 0;
+        start = System.nanoTime();
+        while (rounds < ROUNDS && (rounds == 0 || System.nanoTime() - start < TARGET_NANOS)) {
+            long t0 = System.nanoTime();
+            c.run();
+            total += System.nanoTime() - t0;
+            rounds++;
+        }
+        return new double[] { total / 1e6 / rounds, rounds };
+    }
+
+    private static void report(String name, MazeData data, String label, double[] timing, String info) {
+        System.out.printf("%-24s %11d %-20s %12.3f %7d  %s%n",
+            name, data.cellCount(), label, timing[0], (int) timing[1], info);
+    }
+}
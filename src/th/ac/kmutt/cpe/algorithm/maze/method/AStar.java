@@ -1,52 +1,59 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
 
-import java.util.Comparator;
-import java.util.PriorityQueue;
-import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
-import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
-
-public class AStar {
-    private static final int directions[][] = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-    MazeData data;
-    MazeFrame frame;
-    Position pos;
-    private volatile boolean cancelled = false;
-
-    public  void runAStar() {
-        int rows = data.N(), cols = data.M();
-        int[][] dist = new int[rows][cols];
-        for (int i=0;i<rows;i++) for(int j=0;j<cols;j++) dist[i][j]=Integer.MAX_VALUE;
-        Node start = new Node(data.getEntranceX(), data.getEntranceY(), 0, null);
-        Node goal = new Node(data.getExitX(), data.getExitY(), 0, null);
-        dist[start.x][start.y] = 0;
-
-        Comparator<Node> cmp = (a,b) -> Integer.compare(a.cost + heuristic(a, goal), b.cost + heuristic(b, goal));
-        PriorityQueue<Node> open = new PriorityQueue<>(cmp);
-        open.add(start);
-
-        boolean isSolved=false; int visitedCount=0; long t0=System.nanoTime(); Node end=null;
-        while(!open.isEmpty() && !cancelled){
-            Node cur = open.poll();
-            if (data.visited[cur.x][cur.y]) continue;
-            data.visited[cur.x][cur.y] = true; visitedCount++;
-            pos.setData(cur.x, cur.y, true);
-            if (cur.x==goal.x && cur.y==goal.y){ isSolved=true; end=cur; break; }
-            for(int[]d:directions){
-                int nx=cur.x+d[0], ny=cur.y+d[1];
-                if(!data.inArea(nx,ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD || data.visited[nx][ny]) continue;
-                int stepCost = data.weight!=null && data.weight[nx][ny]>0 ? data.weight[nx][ny] : 1;
-                int newCost = cur.cost + stepCost;
-                if(newCost < dist[nx][ny]){ dist[nx][ny]=newCost; open.add(new Node(nx,ny,newCost,cur)); }
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+public class AStar implements Solver {
+    MazeView data;
+
+    @Override
+    public String name() {
+        return "A*";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        this.data = data;
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+        int[] dist = new int[data.cellCount()];
+        int[] parent = new int[data.cellCount()];
+        java.util.Arrays.fill(dist, Integer.MAX_VALUE);
+        int start = data.getEntrance();
+        int goal = data.getExit();
+        dist[start] = 0;
+        parent[start] = -1;
+
+        // Keyed by f = g + h; Manhattan distance is consistent because every step costs >= 1,
+        // so a popped cell is final and never re-queued
+        IndexedMinHeap open = new IndexedMinHeap(data.cellCount());
+        open.pushOrDecrease(start, heuristic(start, goal));
+
+        boolean isSolved=false; int visitedCount=0; long t0=System.nanoTime();
+        while(!open.isEmpty() && !cancel.isCancelled()){
+            int cur = open.pop();
+            visitedCount++;
+            listener.onVisit(cur);
+            if (cur==goal){ isSolved=true; break; }
+            int g = dist[cur];
+            for(int d=0;d<4;d++){
+                int next=data.neighbor(cur,d);
+                if(next<0 || !data.isRoad(next)) continue;
+                int newCost = g + data.stepCost(next);
+                if(newCost < dist[next]){ dist[next]=newCost; parent[next]=cur; open.pushOrDecrease(next, newCost + heuristic(next, goal)); }
             }
         }
         long t1=System.nanoTime();
-        if(isSolved && end!=null){ int steps=pos.findPath(end); long ms=(t1-t0)/1_000_000L; frame.updateMetrics(end.cost, steps, visitedCount, ms, "A*"); }
-        else { frame.updateMetrics(null, null, visitedCount, (System.nanoTime()-t0)/1_000_000L, "A*"); }
-        pos.setData(-1,-1,false);
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = !isSolved && cancel.isCancelled();
+        metrics.expanded = visitedCount;
+        metrics.frontier(open);
+        if(isSolved){ int[] path=SolveResult.tracePath(parent, goal); return new SolveResult(name(), dist[goal], path.length, visitedCount, t1-t0, path, metrics); }
+        return new SolveResult(name(), null, null, visitedCount, t1-t0, null, metrics);
     }
 
-    private int heuristic(Node a, Node goal){
-        return Math.abs(a.x - goal.x) + Math.abs(a.y - goal.y);
+    int heuristic(int cell, int goal){
+        return Math.abs(data.cellX(cell) - data.cellX(goal)) + Math.abs(data.cellY(cell) - data.cellY(goal));
     }
 
 }
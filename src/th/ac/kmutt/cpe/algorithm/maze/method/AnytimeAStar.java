@@ -0,0 +1,130 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Anytime Repairing A* (ARA*): A* with its Manhattan heuristic inflated by w,
+// so a first route comes quickly, then repeated searches with a smaller w.
+// Each search reuses the previous g values and only re-expands cells whose
+// cost dropped: cells improved after being closed wait in INCONS for the next
+// iteration instead of being expanded twice. Every route or tighter bound is
+// published through onImprovement, with bound = min(w, cost / min(g + h) over
+// OPEN and INCONS). The run ends with a proven optimal route, when no route
+// exists, or when the time budget runs out; it then returns the best route so
+// far. visited counts expansions over all iterations.
+public class AnytimeAStar extends AStar {
+    @Override
+    public String name() {
+        return "ARA*";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        this.data = data;
+        if (options == null) options = new SolveOptions();
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+        int n = data.cellCount();
+        int start = data.getEntrance();
+        int goal = data.getExit();
+        int[] g = new int[n];
+        int[] parent = new int[n];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        g[start] = 0;
+        parent[start] = -1;
+        // Iteration in which a cell was last closed / put in INCONS
+        int[] closedIn = new int[n];
+        int[] inconsIn = new int[n];
+        // INCONS, and the scratch list OPEN is rebuilt from between iterations
+        int[] incons = new int[n];
+        int inconsCount = 0;
+
+        double w = Math.max(1.0, options.araInitialWeight);
+        double step = options.araWeightStep > 0 ? options.araWeightStep : 0.5;
+        int iteration = 1;
+        IndexedMinHeap open = new IndexedMinHeap(n);
+        open.pushOrDecrease(start, key(start, goal, 0, w));
+
+        int[] bestPath = null;
+        int bestCost = Integer.MAX_VALUE;
+        double bound = Double.NaN;
+        int visitedCount = 0;
+        boolean stopped = false;
+        long t0 = System.nanoTime();
+
+        while (true) {
+            // Expand until no queued cell can still beat the goal (h(goal) = 0)
+            while (!open.isEmpty() && open.peekKey() < g[goal]) {
+                if (cancel.isCancelled()) { stopped = true; break; }
+                int cur = open.pop();
+                closedIn[cur] = iteration;
+                visitedCount++;
+                listener.onVisit(cur);
+                int gc = g[cur];
+                for (int d = 0; d < 4; d++) {
+                    int next = data.neighbor(cur, d);
+                    if (next < 0 || !data.isRoad(next)) continue;
+                    int newCost = gc + data.stepCost(next);
+                    if (newCost >= g[next]) continue;
+                    g[next] = newCost;
+                    parent[next] = cur;
+                    if (closedIn[next] != iteration) {
+                        open.pushOrDecrease(next, key(next, goal, newCost, w));
+                    } else if (inconsIn[next] != iteration) {
+                        inconsIn[next] = iteration;
+                        incons[inconsCount++] = next;
+                    }
+                }
+            }
+            if (stopped || g[goal] == Integer.MAX_VALUE) break;
+
+            // Every cheaper route passes a cell in OPEN or INCONS, so the
+            // cheapest g + h among them bounds the optimum from below
+            long lower = Long.MAX_VALUE;
+            for (int i = 0; i < open.size(); i++) {
+                int c = open.cellAt(i);
+                lower = Math.min(lower, (long) g[c] + heuristic(c, goal));
+            }
+            for (int i = 0; i < inconsCount; i++) {
+                lower = Math.min(lower, (long) g[incons[i]] + heuristic(incons[i], goal));
+            }
+            double b = lower >= g[goal] ? 1.0 : Math.max(1.0, Math.min(w, g[goal] / (double) lower));
+            if (g[goal] < bestCost || !(b >= bound)) {
+                if (g[goal] < bestCost) {
+                    bestCost = g[goal];
+                    bestPath = SolveResult.tracePath(parent, goal);
+                }
+                bound = b;
+                listener.onImprovement(bestPath, bestCost, bound);
+            }
+            if (w <= 1.0 || bound <= 1.0) break;
+
+            // Next iteration: a smaller w, INCONS merged into OPEN, all re-keyed
+            w = Math.max(1.0, w - step);
+            iteration++;
+            int m = inconsCount;
+            for (int i = 0; i < open.size(); i++) incons[m++] = open.cellAt(i);
+            open.clear();
+            for (int i = 0; i < m; i++) open.pushOrDecrease(incons[i], key(incons[i], goal, g[incons[i]], w));
+            inconsCount = 0;
+        }
+
+        long t1 = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.expanded = visitedCount;
+        metrics.frontier(open);
+        // Running out of budget is how an anytime run ends, not a cancel
+        metrics.cancelled = stopped && CancellationToken.cancelledByCaller(options);
+        metrics.bound = bound;
+        if (bestPath != null) {
+            return new SolveResult(name(), bestCost, bestPath.length, visitedCount, t1 - t0, bestPath, metrics);
+        }
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
+    }
+
+    // g + w * h, rounded down (which keeps the bound) and capped to an int
+    private int key(int cell, int goal, int g, double w) {
+        return (int) Math.min(Integer.MAX_VALUE, g + (long) (w * heuristic(cell, goal)));
+    }
+}
@@ -0,0 +1,81 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Picks the cheapest exact engine for the maze it is given:
+// JPS when every road costs the same, Dial when weights fit its buckets,
+// the heap-based Dijkstra otherwise. Results carry the chosen engine's name.
+// Legacy text mazes get seeded 1..9 weights on load, so JPS is only picked for
+// weighted or binary files and generated mazes whose roads all cost the same.
+// When the maze's cost-to-goal field is already built, the route is read
+// straight off it instead of searching again; Auto never builds it itself.
+public class AutoSolver implements Solver {
+
+    @Override
+    public String name() {
+        return "Auto";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        MazeFields fields = MazeFields.peek(data);
+        if (fields != null && fields.hasCostToGoal()) {
+            return followField(data, fields, CancellationToken.of(options), listener != null ? listener : SolveListener.NONE);
+        }
+        return choose(data).solve(data, options, listener);
+    }
+
+    // Walk downhill on costToGoal: each step enters a neighbour whose remaining
+    // cost plus its own stepCost equals the current remaining cost. visited
+    // counts the distinct cells whose field was read, route cells included.
+    private SolveResult followField(MazeView data, MazeFields fields, CancellationToken cancel, SolveListener listener) {
+        long t0 = System.nanoTime();
+        int start = data.getEntrance();
+        int[] cost = fields.costToGoal();
+        SolveMetrics metrics = new SolveMetrics();
+        if (cost[start] == MazeFields.UNREACHABLE) {
+            metrics.expanded = 1;
+            return new SolveResult("Auto (cached)", null, null, 1, System.nanoTime() - t0, null, metrics);
+        }
+        int[] steps = fields.stepsToGoal();
+        Set<Integer> touched = new HashSet<>();
+        int[] path = new int[Math.max(1, cost[start] + 1)];
+        int len = 0;
+        int cur = start;
+        path[len++] = cur;
+        touched.add(cur);
+        listener.onVisit(cur);
+        while (cost[cur] > 0) {
+            if (cancel.isCancelled()) {
+                metrics.cancelled = true;
+                metrics.expanded = len;
+                return new SolveResult("Auto (cached)", null, null, touched.size(), System.nanoTime() - t0, null, metrics);
+            }
+            int best = -1;
+            for (int d = 0; d < 4; d++) {
+                int next = data.neighbor(cur, d);
+                if (next < 0 || !data.isRoad(next)) continue;
+                touched.add(next);
+                if (cost[next] == MazeFields.UNREACHABLE || cost[next] + data.stepCost(next) != cost[cur]) continue;
+                // Among equally cheap moves prefer the one with fewer steps left
+                if (best < 0 || steps[next] < steps[best]) best = next;
+            }
+            cur = best;
+            path[len++] = cur;
+            listener.onVisit(cur);
+        }
+        path = Arrays.copyOf(path, len);
+        metrics.expanded = len;
+        return new SolveResult("Auto (cached)", cost[start], len, touched.size(), System.nanoTime() - t0, path, metrics);
+    }
+
+    static Solver choose(MazeView data) {
+        if (data.hasUniformWeights()) return new JumpPointSearch();
+        if (data.maxStepCost() + 1 <= DialDijkstra.MAX_BUCKETS) return new DialDijkstra();
+        return new Dijkstra();
+    }
+}
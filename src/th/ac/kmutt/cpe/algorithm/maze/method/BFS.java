@@ -1,49 +1,59 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
 
-import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
-import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
 
-public class BFS {
-    private static final int directions[][] = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-    MazeData data;
-    MazeFrame frame;
-    Position pos;
-
-    private volatile boolean cancelled = false;
+public class BFS implements Solver {
+    @Override
+    public String name() {
+        return "BFS";
+    }
 
-    public void runBFS() {
-        java.util.ArrayDeque<Position> queue = new java.util.ArrayDeque<>();
-        Position entrance = new Position(data.getEntranceX(), data.getEntranceY(), null);
-        queue.add(entrance);
-        if (data.inArea(entrance.x, entrance.y)) data.visited[entrance.x][entrance.y] = true;
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+        // Queue, parent links and visited flags over flat cell ids, private to this solve
+        int[] queue = new int[data.cellCount()];
+        int[] parent = new int[data.cellCount()];
+        boolean[] visited = new boolean[data.cellCount()];
+        int head = 0, tail = 0, peak = 1;
+        int entrance = data.getEntrance();
+        int exit = data.getExit();
+        queue[tail++] = entrance;
+        parent[entrance] = -1;
+        visited[entrance] = true;
 
         boolean isSolved = false;
         int visitedCount = 0;
         long t0 = System.nanoTime();
-        Position end = null;
 
-        while (!queue.isEmpty() && !cancelled) {
-            Position cur = queue.poll();
+        while (head < tail && !cancel.isCancelled()) {
+            int cur = queue[head++];
             visitedCount++;
-            pos.setData(cur.x, cur.y, true);
-            if (cur.x == data.getExitX() && cur.y == data.getExitY()) { isSolved = true; end = cur; break; }
-            for (int[] d : directions) {
-                int nx = cur.x + d[0], ny = cur.y + d[1];
-                if (data.inArea(nx, ny) && !data.visited[nx][ny] && data.getMazeChar(nx,ny)==MazeData.ROAD) {
-                    data.visited[nx][ny] = true;
-                    queue.add(new Position(nx, ny, cur));
+            listener.onVisit(cur);
+            if (cur == exit) { isSolved = true; break; }
+            for (int d = 0; d < 4; d++) {
+                int next = data.neighbor(cur, d);
+                if (next >= 0 && !visited[next] && data.isRoad(next)) {
+                    visited[next] = true;
+                    parent[next] = cur;
+                    queue[tail++] = next;
                 }
             }
+            if (tail - head > peak) peak = tail - head;
         }
 
         long t1 = System.nanoTime();
-        if (isSolved && end != null) {
-            int steps = pos.findPath(end);
-            long ms = (t1 - t0) / 1_000_000L;
-            frame.updateMetrics(null, steps, visitedCount, ms, "BFS");
-        } else {
-            frame.updateMetrics(null, null, visitedCount, (System.nanoTime()-t0)/1_000_000L, "BFS");
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = !isSolved && cancel.isCancelled();
+        metrics.expanded = visitedCount;
+        metrics.pushes = tail;
+        metrics.pops = head;
+        metrics.peakFrontier = peak;
+        if (isSolved) {
+            int[] path = SolveResult.tracePath(parent, exit);
+            return new SolveResult(name(), null, path.length, visitedCount, t1 - t0, path, metrics);
         }
-        pos.setData(-1, -1, false);
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
     }
 }
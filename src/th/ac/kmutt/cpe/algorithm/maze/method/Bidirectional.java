@@ -0,0 +1,133 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Dijkstra / A* from both ends at once. Costs are on the entered cell, so the
+// forward distance df[v] includes v's weight and the backward distance db[v]
+// covers only the cells after v; a route through v costs df[v] + db[v].
+// The A* variant uses the average potential p(v) = (hF(v) - hB(v)) / 2 of
+// the two Manhattan distances, which stays consistent in both directions, so
+// both variants stop with the same rule: the best meeting value seen so far
+// (mu) is final once topF + topB >= mu. Keys are doubled to keep p integral.
+// visited counts the cells settled by both frontiers together.
+public class Bidirectional implements Solver {
+    private final boolean heuristic;
+    private MazeView data;
+
+    public Bidirectional(boolean heuristic) {
+        this.heuristic = heuristic;
+    }
+
+    @Override
+    public String name() {
+        return heuristic ? "Bi-A*" : "Bi-Dijkstra";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        this.data = data;
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+        int n = data.cellCount();
+        int start = data.getEntrance();
+        int goal = data.getExit();
+
+        int[] df = new int[n], db = new int[n];
+        int[] parentF = new int[n], parentB = new int[n];  // parentB points towards the exit
+        Arrays.fill(df, Integer.MAX_VALUE);
+        Arrays.fill(db, Integer.MAX_VALUE);
+        df[start] = 0;
+        db[goal] = 0;
+        parentF[start] = -1;
+        parentB[goal] = -1;
+
+        IndexedMinHeap openF = new IndexedMinHeap(n);
+        IndexedMinHeap openB = new IndexedMinHeap(n);
+        openF.pushOrDecrease(start, potential(start, start, goal));
+        openB.pushOrDecrease(goal, -potential(goal, start, goal));
+
+        int mu = start == goal ? 0 : Integer.MAX_VALUE;
+        int meet = start == goal ? start : -1;
+        int visitedCount = 0;
+        int peak = 0;
+        boolean stopped = false;
+        long t0 = System.nanoTime();
+
+        while (!openF.isEmpty() && !openB.isEmpty()) {
+            if (cancel.isCancelled()) { stopped = true; break; }
+            if (mu != Integer.MAX_VALUE && (long) openF.peekKey() + openB.peekKey() >= 2L * mu) break;
+            // Grow the smaller frontier so both sides stay balanced
+            boolean forward = openF.size() <= openB.size();
+            peak = Math.max(peak, openF.size() + openB.size());
+            int cur = forward ? openF.pop() : openB.pop();
+            visitedCount++;
+            listener.onVisit(cur);
+            if (forward) {
+                int g = df[cur];
+                for (int d = 0; d < 4; d++) {
+                    int next = data.neighbor(cur, d);
+                    if (next < 0 || !data.isRoad(next)) continue;
+                    int newCost = g + data.stepCost(next);
+                    if (newCost < df[next]) {
+                        df[next] = newCost;
+                        parentF[next] = cur;
+                        openF.pushOrDecrease(next, 2 * newCost + potential(next, start, goal));
+                        if (db[next] != Integer.MAX_VALUE && newCost + db[next] < mu) {
+                            mu = newCost + db[next];
+                            meet = next;
+                        }
+                    }
+                }
+            } else {
+                // Stepping back from cur to next means entering cur on the route
+                int newCost = db[cur] + data.stepCost(cur);
+                for (int d = 0; d < 4; d++) {
+                    int next = data.neighbor(cur, d);
+                    if (next < 0 || !data.isRoad(next)) continue;
+                    if (newCost < db[next]) {
+                        db[next] = newCost;
+                        parentB[next] = cur;
+                        openB.pushOrDecrease(next, 2 * newCost - potential(next, start, goal));
+                        if (df[next] != Integer.MAX_VALUE && df[next] + newCost < mu) {
+                            mu = df[next] + newCost;
+                            meet = next;
+                        }
+                    }
+                }
+            }
+        }
+
+        long t1 = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = stopped;
+        metrics.expanded = visitedCount;
+        metrics.frontier(openF);
+        metrics.frontier(openB);
+        // Both frontiers are live at once
+        metrics.peakFrontier = peak;
+        // A cancelled run still returns its best meeting: a real route, not
+        // necessarily the cheapest
+        if (meet >= 0) {
+            int[] head = SolveResult.tracePath(parentF, meet);
+            int tail = 0;
+            for (int cur = parentB[meet]; cur >= 0; cur = parentB[cur]) tail++;
+            int[] path = Arrays.copyOf(head, head.length + tail);
+            int i = head.length;
+            for (int cur = parentB[meet]; cur >= 0; cur = parentB[cur]) path[i++] = cur;
+            return new SolveResult(name(), mu, path.length, visitedCount, t1 - t0, path, metrics);
+        }
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
+    }
+
+    // Twice the forward potential; the backward search uses its negation
+    private int potential(int cell, int start, int goal) {
+        if (!heuristic) return 0;
+        return manhattan(cell, goal) - manhattan(cell, start);
+    }
+
+    private int manhattan(int a, int b) {
+        return Math.abs(data.cellX(a) - data.cellX(b)) + Math.abs(data.cellY(a) - data.cellY(b));
+    }
+}
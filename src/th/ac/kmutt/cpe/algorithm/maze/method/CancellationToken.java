@@ -0,0 +1,79 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+// Cooperative stop signal for a solve. Whoever started the run calls cancel();
+// engines poll isCancelled() in their inner loops and return what they have so
+// far, with SolveMetrics.cancelled set. A token may also carry a deadline, and
+// one made by withBudget is cancelled with its parent or when its own time runs
+// out, so a per-solve time budget is the same signal as the reset button.
+// Safe to share between threads (race mode, GA workers).
+public final class CancellationToken {
+    // Never cancelled and cannot be; the default in SolveOptions
+    public static final CancellationToken NONE = new CancellationToken(null, 0, false);
+
+    private final CancellationToken parent;
+    private final long deadline;  // System.nanoTime() based
+    private final boolean timed;
+    private volatile boolean cancelled;
+
+    public CancellationToken() {
+        this(null, 0, false);
+    }
+
+    private CancellationToken(CancellationToken parent, long deadline, boolean timed) {
+        this.parent = parent;
+        this.deadline = deadline;
+        this.timed = timed;
+    }
+
+    // A fresh token that cancels itself timeoutMs from now
+    public static CancellationToken withTimeout(long timeoutMs) {
+        return new CancellationToken().withBudget(timeoutMs);
+    }
+
+    // A child that is cancelled with this token or budgetMs from now, whichever
+    // comes first; budgetMs <= 0 means no budget and returns this token
+    public CancellationToken withBudget(long budgetMs) {
+        if (budgetMs <= 0) return this;
+        long d = System.nanoTime() + budgetMs * 1_000_000L;
+        if (timed && deadline - d < 0) d = deadline;
+        return new CancellationToken(this == NONE ? null : this, d, true);
+    }
+
+    // The token a solve polls: the options' token under the options' time budget
+    static CancellationToken of(SolveOptions options) {
+        if (options == null) return NONE;
+        CancellationToken t = options.cancellation != null ? options.cancellation : NONE;
+        return t.withBudget(options.timeBudgetMs);
+    }
+
+    // Whether the caller's token fired, rather than only the per-solve time
+    // budget running out; anytime engines treat the budget as a normal finish
+    static boolean cancelledByCaller(SolveOptions options) {
+        return options != null && options.cancellation != null && options.cancellation.isCancelled();
+    }
+
+    public void cancel() {
+        if (this == NONE) throw new IllegalStateException("CancellationToken.NONE cannot be cancelled");
+        cancelled = true;
+    }
+
+    // A volatile read, plus a clock read when a deadline is set; once true it stays true
+    public boolean isCancelled() {
+        if (cancelled) return true;
+        if ((timed && System.nanoTime() - deadline >= 0) || (parent != null && parent.isCancelled())) {
+            cancelled = true;
+            return true;
+        }
+        return false;
+    }
+
+    public boolean hasDeadline() {
+        return timed;
+    }
+
+    // Nanoseconds until the deadline (never negative), or Long.MAX_VALUE without one
+    public long remainingNanos() {
+        if (!timed) return Long.MAX_VALUE;
+        return Math.max(0, deadline - System.nanoTime());
+    }
+}
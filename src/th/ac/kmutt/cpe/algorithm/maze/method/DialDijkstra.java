@@ -0,0 +1,76 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import th.ac.kmutt.cpe.algorithm.maze.structure.BucketQueue;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Dijkstra with Dial's bucket queue: cell weights are small integers, so the
+// frontier fits in maxStepCost + 1 circular buckets and no comparisons are
+// needed. Mazes with large weights fall back to the heap-based Dijkstra.
+public class DialDijkstra implements Solver {
+    // Above this many buckets, scanning empty buckets costs more than a heap
+    static final int MAX_BUCKETS = 1024;
+
+    @Override
+    public String name() {
+        return "Dial";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        int maxCost = data.maxStepCost();
+        if (maxCost + 1 > MAX_BUCKETS) {
+            SolveResult r = new Dijkstra().solve(data, options, listener);
+            return new SolveResult(name() + " (heap)", r.cost, r.steps, r.visited, r.wallNanos, r.path, r.metrics);
+        }
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+
+        int[] dist = new int[data.cellCount()];
+        int[] parent = new int[data.cellCount()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
+        int start = data.getEntrance();
+        int exit = data.getExit();
+        dist[start] = 0;
+        parent[start] = -1;
+
+        BucketQueue queue = new BucketQueue(data.cellCount(), maxCost);
+        queue.pushOrDecrease(start, 0);
+
+        boolean isSolved = false;
+        int visitedCount = 0;
+        long t0 = System.nanoTime();
+
+        while (!queue.isEmpty() && !cancel.isCancelled()) {
+            int cur = queue.pop();
+            visitedCount++;
+            listener.onVisit(cur);
+            if (cur == exit) {
+                isSolved = true;
+                break;
+            }
+            int curCost = dist[cur];
+            for (int d = 0; d < 4; d++) {
+                int next = data.neighbor(cur, d);
+                if (next < 0 || !data.isRoad(next)) continue;
+                int newCost = curCost + data.stepCost(next);
+                if (newCost < dist[next]) {
+                    dist[next] = newCost;
+                    parent[next] = cur;
+                    queue.pushOrDecrease(next, newCost);
+                }
+            }
+        }
+
+        long t1 = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = !isSolved && cancel.isCancelled();
+        metrics.expanded = visitedCount;
+        metrics.frontier(queue);
+        if (isSolved) {
+            int[] path = SolveResult.tracePath(parent, exit);
+            return new SolveResult(name(), dist[exit], path.length, visitedCount, t1 - t0, path, metrics);
+        }
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
+    }
+}
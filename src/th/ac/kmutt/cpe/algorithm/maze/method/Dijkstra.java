@@ -1,81 +1,72 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
 import java.util.*;
-import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
-import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
 
-public class Dijkstra{
-    private static final int directions[][] = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-    MazeData data;
-    MazeFrame frame;
-    Position pos;
-    private volatile boolean cancelled = false;
+public class Dijkstra implements Solver {
+    @Override
+    public String name() {
+        return "Dijkstra";
+    }
 
-    public void runDijkstra() {
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
         // Dijkstra's algorithm on grid with per-cell weights
-        int rows = data.N();
-        int cols = data.M();
-        int[][] dist = new int[rows][cols];
-        for (int i = 0; i < rows; i++) {
-            for (int j = 0; j < cols; j++) dist[i][j] = Integer.MAX_VALUE;
-        }
+        int[] dist = new int[data.cellCount()];
+        int[] parent = new int[data.cellCount()];
+        Arrays.fill(dist, Integer.MAX_VALUE);
 
-        Node start = new Node(data.getEntranceX(), data.getEntranceY(), 0, null);
-        if (data.inArea(start.x, start.y)) {
-            dist[start.x][start.y] = 0;
-        }
+        int start = data.getEntrance();
+        int exit = data.getExit();
+        dist[start] = 0;
+        parent[start] = -1;
 
-        PriorityQueue<Node> pq = new PriorityQueue<>(Comparator.comparingInt(n -> n.cost));
-        pq.add(start);
+        // Indexed heap keyed by cell id: relaxations decrease keys in place
+        IndexedMinHeap pq = new IndexedMinHeap(data.cellCount());
+        pq.pushOrDecrease(start, 0);
 
         boolean isSolved = false;
         int visitedCount = 0;
         long t0 = System.nanoTime();
-        Node endNode = null;
 
-        while (!pq.isEmpty() && !cancelled) {
-            Node cur = pq.poll();
-            if (data.visited[cur.x][cur.y]) continue; // finalized already
-            data.visited[cur.x][cur.y] = true;
+        while (!pq.isEmpty() && !cancel.isCancelled()) {
+            int cur = pq.pop(); // finalized: every cell is popped once
             visitedCount++;
 
-            pos.setData(cur.x, cur.y, true); // visualize exploration
+            listener.onVisit(cur); // visualize exploration
 
-            if (cur.x == data.getExitX() && cur.y == data.getExitY()) {
+            if (cur == exit) {
                 isSolved = true;
-                endNode = cur;
                 break;
             }
 
-            for (int[] d : directions) {
-                int nx = cur.x + d[0];
-                int ny = cur.y + d[1];
-                if (!data.inArea(nx, ny)) continue;
-                if (data.getMazeChar(nx, ny) != MazeData.ROAD) continue; // skip walls
-                if (data.visited[nx][ny]) continue;
-                int stepCost = 1;
-                if (data.weight != null) {
-                    int w = data.weight[nx][ny];
-                    stepCost = (w > 0 ? w : 1);
-                }
-                int newCost = (cur.cost == Integer.MAX_VALUE ? Integer.MAX_VALUE : cur.cost + stepCost);
-                if (newCost < dist[nx][ny]) {
-                    dist[nx][ny] = newCost;
-                    pq.add(new Node(nx, ny, newCost, cur));
+            int curCost = dist[cur];
+            for (int d = 0; d < 4; d++) {
+                int next = data.neighbor(cur, d);
+                if (next < 0) continue;
+                if (!data.isRoad(next)) continue; // skip walls
+                int newCost = curCost + data.stepCost(next);
+                if (newCost < dist[next]) {
+                    dist[next] = newCost;
+                    parent[next] = cur;
+                    pq.pushOrDecrease(next, newCost);
                 }
             }
         }
 
         long t1 = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = !isSolved && cancel.isCancelled();
+        metrics.expanded = visitedCount;
+        metrics.frontier(pq);
 
-        if (isSolved && endNode != null) {
-            int steps = pos.findPath(endNode); // mark result path and count steps
-            int totalCost = endNode.cost;
-            long ms = (t1 - t0) / 1_000_000L;
-            frame.updateMetrics(totalCost, steps, visitedCount, ms, "Dijkstra");
-        } else {
-            frame.updateMetrics(null, null, visitedCount, (System.nanoTime()-t0)/1_000_000L, "Dijkstra");
-            System.out.println("The maze has NO solution!");
+        if (isSolved) {
+            int[] path = SolveResult.tracePath(parent, exit); // route and step count
+            return new SolveResult(name(), dist[exit], path.length, visitedCount, t1 - t0, path, metrics);
         }
-        pos.setData(-1, -1, false);
+        if (!metrics.cancelled) System.out.println("The maze has NO solution!");
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
     }
 }
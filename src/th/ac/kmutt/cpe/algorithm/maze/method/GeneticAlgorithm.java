@@ -1,20 +1,67 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
 
-import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
-import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.concurrent.RecursiveAction;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
 
-public class GeneticAlgorithm {
-    private static final int directions[][] = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-    MazeData data;
-    MazeFrame frame;
-    Position pos;
-    private volatile boolean cancelled = false;
+public class GeneticAlgorithm implements Solver {
+    // Genomes per leaf task when evaluating a generation in parallel
+    private static final int EVAL_CHUNK = 16;
 
-    public  void runGenetic() {
+    // Anytime mode: keeps improving after reaching the goal and ignores
+    // stagnation; with a time budget it runs until the budget instead of
+    // gaGenerations
+    private final boolean anytime;
+    private MazeView data;
+    private SolveOptions options;
+    private SolveListener listener;
+    private CancellationToken cancel;
+
+    // Per-run evaluation state shared read-only by the workers
+    private int[] distMap;
+    private double goalBias;
+    private double mutationRate;
+    private SolveMetrics metrics;
+    // Last route passed to onImprovement, and its cost. Islands rank by GA
+    // score, so a later best genome can have a costlier route than this one.
+    private int[] publishedPath;
+    private int publishedCost;
+    // Reusable walkers; a leaf task borrows one for its whole chunk
+    private final ConcurrentLinkedQueue<GenomeWalker> walkers = new ConcurrentLinkedQueue<>();
+
+    public GeneticAlgorithm() {
+        this(false);
+    }
+
+    public GeneticAlgorithm(boolean anytime) {
+        this.anytime = anytime;
+    }
+
+    @Override
+    public String name() {
+        return anytime ? "Anytime GA" : "Genetic";
+    }
+
+    @Override
+    public SolveResult solve(MazeView maze, SolveOptions options, SolveListener listener) {
+        this.data = maze;
+        this.options = options != null ? options : new SolveOptions();
+        this.listener = listener != null ? listener : SolveListener.NONE;
+        this.cancel = CancellationToken.of(this.options);
+        return runGenetic();
+    }
+
+    private SolveResult runGenetic() {
         // Genetic algorithm with goal-directed bias, repair, and distance-map fitness.
         // Key fix: keep genomes aligned with their evaluation when sorting/selecting.
-        final int populationSize = Math.max(10, frame.getGaPopulation());
-        final int maxGenerations = Math.max(1, frame.getGaGenerations());
+        final int populationSize = Math.max(10, options.gaPopulation);
+        final int maxGenerations = anytime && cancel.hasDeadline() ? Integer.MAX_VALUE : Math.max(1, options.gaGenerations);
         int estSteps = estimateShortestSteps();
         int area = data.N() * data.M();
         double scale = area >= 2500 ? 3.0 : 1.5; // bigger mazes get longer genomes
@@ -23,421 +70,534 @@ public class GeneticAlgorithm {
             Math.min((int)Math.round(estSteps * scale), upperCap),
             data.N() + data.M()
         );
-        final double mutationRate = frame.getGaMutationRate();
-        final double goalBias = frame.getGaGoalBias();
-        final java.util.Random rnd = new java.util.Random(42);
-
-        final int[][] distMap = computeDistanceMap();
-
-        // Helper to evaluate a genome
-        class EvalResult { int cost; java.util.List<int[]> path; boolean reached; }
-        java.util.function.Function<int[], EvalResult> evaluate = genome -> {
-            // reset temp visited
-            boolean[][] seen = new boolean[data.N()][data.M()];
-            int x = data.getEntranceX(), y = data.getEntranceY();
-            int cost = 0;
-            java.util.ArrayList<int[]> path = new java.util.ArrayList<>();
-            path.add(new int[]{x,y});
-            seen[x][y] = true;
-            for (int i=0;i<genome.length;i++) {
-                int move = genome[i]%4;
-                // Occasionally override with a goal-directed move
-                if (rnd.nextDouble() < goalBias) {
-                    move = chooseDirectedMove(x, y, distMap, rnd);
-                }
-                int[] d = directions[move];
-                int nx = x + d[0], ny = y + d[1];
-                if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) {
-                    cost += 50; // heavier penalty for invalid move
-                    continue;
-                }
-                x = nx; y = ny;
-                int w = data.weight!=null?data.weight[x][y]:1; int stepCost = w>0?w:1; cost += stepCost;
-                if (!seen[x][y]) {
-                    seen[x][y]=true;
-                } else {
-                    cost += 2; // small loop penalty
-                }
-                path.add(new int[]{x,y});
-                if (x==data.getExitX() && y==data.getExitY()) break;
+        mutationRate = options.gaMutationRate;
+        goalBias = options.gaGoalBias;
+        // Breeding draws from this stream on the calling thread; each new genome
+        // gets its own walk seed, handed out in population order, and children
+        // inherit their first parent's, so the outcome for a seed is the same
+        // however many workers run the evaluations
+        final SplittableRandom rnd = new SplittableRandom(options.gaSeed);
+        // One thread evaluates inline; otherwise a ForkJoin pool
+        ForkJoinPool pool = options.gaThreads == 1 ? null
+            : options.gaThreads > 1 ? new ForkJoinPool(options.gaThreads) : ForkJoinPool.commonPool();
+
+        // Shared, read-only BFS distance to the exit
+        distMap = MazeFields.of(data).stepsToGoal();
+
+        metrics = new SolveMetrics();
+        publishedPath = null;
+        publishedCost = Integer.MAX_VALUE;
+        long t0 = System.nanoTime();
+        int[] bestPath;
+        try {
+            bestPath = options.gaIslands > 1
+                ? runIslands(populationSize, genomeLength, maxGenerations, rnd, pool, t0)
+                : runSingle(new Island(0, populationSize, genomeLength, rnd), maxGenerations, pool, t0);
+        } finally {
+            if (pool != null && pool != ForkJoinPool.commonPool()) pool.shutdown();
+            walkers.clear();
+        }
+        if (publishedPath != null && (bestPath == null || bestPath[bestPath.length - 1] != data.getExit()
+                || computeRouteCost(bestPath) > publishedCost)) {
+            bestPath = publishedPath;
+        }
+        long t1 = System.nanoTime();
+        // Final report: show only the best route metrics
+        Integer finalCost = (bestPath != null ? computeRouteCost(bestPath) : null);
+        int finalSteps = (bestPath != null ? bestPath.length : 0);
+        int finalVisited = (bestPath != null ? countUnique(bestPath) : 0);
+        if (bestPath != null && bestPath[bestPath.length - 1] == data.getExit()) metrics.bound = bound(finalCost);
+        return new SolveResult(name(), finalCost, bestPath != null ? finalSteps : null, finalVisited, t1 - t0, bestPath, metrics);
+    }
+
+    // One population evolving up to maxGenerations; also stops early when a
+    // goal-reaching path is found or after 80 generations without improvement
+    // (not in anytime mode). Evaluation of each generation is spread over the
+    // pool. A cancelled run returns its best path so far.
+    private int[] runSingle(Island island, int maxGenerations, ForkJoinPool pool, long t0) {
+        int gen = 0;
+        while (gen < maxGenerations) {
+            if (cancel.isCancelled()) { markStopped(); break; }
+            island.rank(pool);
+            publish(island);
+            // Animate occasionally to keep UI responsive
+            if (!cancel.isCancelled() && gen % 5 == 0) {
+                listener.onCandidate(island.brPath);
             }
-            boolean reached = (x==data.getExitX() && y==data.getExitY());
-            if (!reached) {
-                // Penalize non-finished routes proportional to remaining grid distance
-                int d = safeGoalDistance(distMap, x, y);
-                cost += d * 120; // strong steering toward goal
+            if (!anytime && island.bestReached) break; // stop once a path reaches the goal
+            if (!anytime && island.stagnation > 80) break; // stop if stuck too long
+            island.breed();
+            // Occasionally update UI with cost-only to avoid clutter
+            if (gen % 10 == 0) {
+                Integer uiCost = computeRouteCost(island.brPath);
+                listener.onProgress(new SolveResult(name(), uiCost, null, null, System.nanoTime()-t0));
             }
-            // Shorter solutions slightly preferred among ties
-            cost += path.size();
-            EvalResult r = new EvalResult();
-            r.cost=cost; r.path=path; r.reached=reached;
-            return r;
-        };
-
-        class Candidate {
-            final int[] genome;
-            final EvalResult eval;
-            Candidate(int[] genome, EvalResult eval) { this.genome = genome; this.eval = eval; }
+            gen++;
         }
+        return island.bestPath;
+    }
 
-        // Initialize population (mix random and goal-directed seeded genomes)
-        java.util.List<int[]> pop = new java.util.ArrayList<>(populationSize);
-        int seeded = Math.max(2, populationSize / 10);
-        for (int i=0;i<seeded;i++) {
-            pop.add(generateDirectedGenome(genomeLength, distMap, rnd));
+    // Island model: gaIslands populations of gaPopulation genomes each evolve
+    // independently, one island per pool task, for gaMigrationInterval
+    // generations at a time. Between epochs each island's elites replace the
+    // newest children of its neighbours (the next island on a ring, or every
+    // other island). Each island breeds from its own split of the seed and
+    // migration runs on the calling thread, so results do not depend on the
+    // number of workers. Stops when an island reaches the goal or every island
+    // has gone 80 generations without improving (not in anytime mode).
+    private int[] runIslands(int populationSize, int genomeLength, int maxGenerations,
+                             SplittableRandom rnd, ForkJoinPool pool, long t0) {
+        Island[] islands = new Island[options.gaIslands];
+        for (int k = 0; k < islands.length; k++) {
+            islands[k] = new Island(k, populationSize, genomeLength, rnd.split());
         }
-        for (int i=seeded;i<populationSize;i++){
-            int[] g=new int[genomeLength];
-            for(int j=0;j<genomeLength;j++) g[j]=rnd.nextInt(4);
-            pop.add(g);
+        int interval = Math.max(1, options.gaMigrationInterval);
+        Island best = islands[0];
+        int gen = 0;
+        while (gen < maxGenerations) {
+            if (cancel.isCancelled()) { markStopped(); break; }
+            int span = Math.min(interval, maxGenerations - gen);
+            if (pool != null) {
+                List<ForkJoinTask<?>> epoch = new ArrayList<>(islands.length);
+                for (Island island : islands) epoch.add(ForkJoinTask.adapt(() -> island.evolve(span)));
+                // Forked from inside the pool: called here, invokeAll would
+                // run on the common pool and ignore gaThreads
+                pool.invoke(ForkJoinTask.adapt(() -> ForkJoinTask.invokeAll(epoch)));
+            } else {
+                for (Island island : islands) island.evolve(span);
+            }
+            gen += span;
+
+            boolean allStagnant = true;
+            for (Island island : islands) {
+                if (island.isBetterThan(best)) best = island;
+                allStagnant &= island.stagnation > 80;
+            }
+            publish(best);
+            // A cancel during the epoch can leave islands that never bred, with
+            // no elites to send, so stop before migrating
+            if (cancel.isCancelled()) { markStopped(); break; }
+            listener.onCandidate(best.brPath);
+            listener.onProgress(new SolveResult(name(), computeRouteCost(best.bestPath), null, null, System.nanoTime()-t0));
+            if (!anytime && (best.bestReached || allStagnant)) break;
+            migrate(islands);
         }
+        return best.bestPath;
+    }
+
+    // A non-anytime run stopped early is partial; an anytime one running out of
+    // time budget has finished, so only the caller's cancel marks it
+    private void markStopped() {
+        metrics.cancelled = !anytime || CancellationToken.cancelledByCaller(options);
+    }
+
+    // Reports the island's best path through onImprovement when it reaches the
+    // goal more cheaply than the last one reported
+    private void publish(Island island) {
+        if (!island.bestReached) return;
+        int cost = computeRouteCost(island.bestPath);
+        if (cost >= publishedCost) return;
+        publishedCost = cost;
+        publishedPath = island.bestPath;
+        listener.onImprovement(island.bestPath, cost, bound(cost));
+    }
+
+    // Ratio to a lower bound on the optimum that needs no exact solve: every
+    // route takes at least the BFS steps in distMap, each costing at least
+    // the cheapest road. Loose on mixed weights, exact on uniform ones.
+    private double bound(int cost) {
+        long lower = (long) distMap[data.getEntrance()] * data.minStepCost();
+        return lower > 0 ? Math.max(1.0, cost / (double) lower) : 1.0;
+    }
+
+    // Copies each island's elites over the last slots of its neighbours. Every
+    // island's elites sit in slots [0, eliteCount) after breeding and incoming
+    // migrants fill slots from the end, so sources are never overwritten.
+    private void migrate(Island[] islands) {
+        int k = islands.length;
+        boolean ring = options.gaTopology == SolveOptions.MigrationTopology.RING;
+        int sources = ring ? 1 : k - 1;
+        int room = islands[0].size - islands[0].eliteCount;
+        int migrants = Math.max(1, Math.min(Math.min(options.gaMigrants, islands[0].eliteCount), room / sources));
+        int[] filled = new int[k];
+        for (int from = 0; from < k; from++) {
+            // Elite slots point at their walk seeds only right after a breed
+            if (!islands[from].bred) continue;
+            for (int step = 1; step <= sources; step++) {
+                Island to = islands[(from + step) % k];
+                for (int m = 0; m < migrants; m++) {
+                    to.receive(islands[from], m, to.size - 1 - filled[(from + step) % k]++);
+                }
+            }
+        }
+    }
+
+    // One population and its breeding stream. Generations alternate between two
+    // fixed sets of genomes, so breeding overwrites the previous generation
+    // instead of allocating.
+    // Each slot also keeps its genome's walk Track; a bred genome records which
+    // parent slot it came from and its first gene that differs from that
+    // parent, so its evaluation resumes from the parent's checkpoints.
+    private final class Island {
+        final int id, size, genomeLength, eliteCount;
+        final SplittableRandom rnd;
+        PackedGenome[] pop, spare;
+        GenomeWalker.Track[] tracks, spareTracks;
+        final int[] parentOf, firstDirty;
+        final long[] seeds;
+        final int[] costs;
+        final boolean[] reached;
+        // Selection keys of the last ranked generation; [0, parentPool) sorted
+        final long[] keys;
+        final int parentPool;
 
         int bestCost = Integer.MAX_VALUE;
-        java.util.List<int[]> bestPath=null;
-        boolean bestReached=false;
-        String algoName="Genetic";
-        long t0 = System.nanoTime();
-        int gen = 0;
-        int stagnation = 0;
-        // Evolve up to maxGenerations; also stops early when a goal-reaching path is found.
-        while (!cancelled && !bestReached && gen < maxGenerations) {
+        int[] bestPath;
+        boolean bestReached;
+        int stagnation;
+        int[] brPath;  // last ranked generation's best trail
+        boolean bred;  // pop is a bred generation, so its elites can migrate
+        int generation;
+        long lastRank = System.nanoTime();
+
+        Island(int id, int size, int genomeLength, SplittableRandom rnd) {
+            this.id = id;
+            this.size = size;
+            this.genomeLength = genomeLength;
+            this.eliteCount = Math.max(1, Math.min(options.gaElitismCount, size-1));
+            this.rnd = rnd;
+            pop = new PackedGenome[size];
+            spare = new PackedGenome[size];
+            tracks = new GenomeWalker.Track[size];
+            spareTracks = new GenomeWalker.Track[size];
+            parentOf = new int[size];
+            firstDirty = new int[size];
+            seeds = new long[size];
+            costs = new int[size];
+            reached = new boolean[size];
+            keys = new long[size];
+            parentPool = Math.max(eliteCount, Math.min(size, 20));
+            // Mix random and goal-directed seeded genomes
+            int seeded = Math.max(2, size / 10);
+            for (int i=0;i<size;i++) {
+                pop[i] = new PackedGenome(genomeLength);
+                spare[i] = new PackedGenome(genomeLength);
+                tracks[i] = new GenomeWalker.Track(genomeLength);
+                spareTracks[i] = new GenomeWalker.Track(genomeLength);
+                if (i < seeded) generateDirectedGenome(pop[i], distMap, rnd);
+                else pop[i].randomize(rnd);
+                parentOf[i] = -1;
+                seeds[i] = rnd.nextLong();
+            }
+        }
+
+        // Evolve up to generations, stopping early on reaching the goal or on cancel
+        void evolve(int generations) {
+            for (int g = 0; g < generations && !cancel.isCancelled(); g++) {
+                rank(null);
+                if (bestReached && !anytime) return;
+                breed();
+            }
+        }
+
+        // Evaluate the generation, carry the elites over and track the best
+        void rank(ForkJoinPool pool) {
             // Evaluate with alignment
-            java.util.List<Candidate> candidates = new java.util.ArrayList<>(populationSize);
-            for (int[] g : pop) candidates.add(new Candidate(g, evaluate.apply(g)));
-            // Sort by reached then cost
-            candidates.sort((a, b) -> {
-                int c1 = (a.eval.reached ? 0 : 1);
-                int c2 = (b.eval.reached ? 0 : 1);
-                if (c1 != c2) return Integer.compare(c1, c2);
-                return Integer.compare(a.eval.cost, b.eval.cost);
-            });
+            Generation g = new Generation(pop, tracks, spareTracks, parentOf, firstDirty, seeds, costs, reached);
+            bred = false;
+            EvaluateTask all = new EvaluateTask(g, genomeLength, 0, size);
+            if (pool != null) pool.invoke(all); else all.evaluateRange();
+            // Rank by reached then cost; only the parent pool is put in order
+            for (int i = 0; i < size; i++) keys[i] = Selection.key(reached[i], costs[i], i);
+            Selection.selectTop(keys, size, parentPool);
             // Elitism
-            java.util.List<int[]> next = new java.util.ArrayList<>(populationSize);
-            int eliteCount = Math.max(1, Math.min(frame.getGaElitismCount(), populationSize-1));
             for (int i=0;i<eliteCount;i++) {
-                int[] elite = candidates.get(i).genome.clone();
+                int e = Selection.index(keys[i]);
+                PackedGenome elite = spare[i];
+                elite.copyFrom(pop[e]);
+                parentOf[i] = e;
+                firstDirty[i] = genomeLength;
                 // Small greedy repair to help elites approach the goal if not reached
-                if (!candidates.get(i).eval.reached) {
-                    greedyRepair(elite, genomeLength, distMap, rnd);
+                if (!reached[e]) {
+                    firstDirty[i] = greedyRepair(elite, genomeLength, distMap, rnd);
                 }
-                next.add(elite);
             }
-            // Track best
-            EvalResult br = candidates.get(0).eval;
+            // Track best; only its trail is materialized
+            int br = Selection.index(keys[0]);
+            brPath = tracks[br].copyTrail();
             boolean improved = false;
-            if (br.reached) {
-                if (!bestReached || br.cost < bestCost) {
+            if (reached[br]) {
+                if (!bestReached || costs[br] < bestCost) {
                     bestReached = true;
-                    bestCost = br.cost;
-                    bestPath = br.path;
+                    bestCost = costs[br];
+                    bestPath = brPath;
                     improved = true;
                 }
-            } else if (!bestReached && br.cost < bestCost) {
-                bestCost = br.cost;
-                bestPath = br.path;
+            } else if (!bestReached && costs[br] < bestCost) {
+                bestCost = costs[br];
+                bestPath = brPath;
                 improved = true;
             }
 
             if (improved) stagnation = 0; else stagnation++;
 
-            // Animate occasionally to keep UI responsive
-            if (!cancelled && br.path != null && gen % 5 == 0) {
-                clearTransientMarks();
-                renderTravellingPath(br.path);
+            // Generation time runs from the previous rank, so it includes breeding
+            long now = System.nanoTime();
+            int reachedCount = 0;
+            long sum = 0;
+            for (int i = 0; i < size; i++) {
+                if (reached[i]) reachedCount++;
+                sum += costs[i];
             }
-            if (bestReached) break; // stop once a path reaches the goal
-            if (stagnation > 80) break; // stop if stuck too long
-            // Crossover + mutation to refill
-            while (next.size() < populationSize) {
-                int parentPool = Math.max(eliteCount, Math.min(populationSize, 20));
-                int[] p1 = candidates.get(rnd.nextInt(parentPool)).genome;
-                int[] p2 = candidates.get(rnd.nextInt(parentPool)).genome;
-                int[] child = new int[genomeLength];
+            metrics.addGeneration(name(), id, generation++, size, costs[br], sum / (double) size,
+                reachedCount, stagnation, now - lastRank);
+            lastRank = now;
+        }
+
+        // Crossover + mutation to refill the slots after the elites
+        void breed() {
+            for (int n = eliteCount; n < size; n++) {
+                int c1 = pickParent();
+                PackedGenome p1 = pop[c1];
+                PackedGenome p2 = pop[pickParent()];
+                PackedGenome child = spare[n];
                 int cut = 1 + rnd.nextInt(genomeLength-1);
-                System.arraycopy(p1, 0, child, 0, cut);
-                System.arraycopy(p2, cut, child, cut, genomeLength-cut);
-                // mutation
-                for (int j=0;j<genomeLength;j++) {
-                    if (rnd.nextDouble() < mutationRate) child[j] = rnd.nextInt(4);
+                int dirty;
+                if (options.gaTwoPointCrossover) {
+                    int cut2 = 1 + rnd.nextInt(genomeLength-1);
+                    dirty = Math.min(cut, cut2);
+                    PackedGenome.twoPoint(p1, p2, dirty, Math.max(cut, cut2), child);
+                } else {
+                    dirty = cut;
+                    PackedGenome.onePoint(p1, p2, cut, child);
                 }
+                // mutation
+                dirty = Math.min(dirty, child.mutate(mutationRate, rnd));
                 // Occasionally bias a segment toward goal
                 if (rnd.nextDouble() < 0.15) {
-                    directedSegmentMutation(child, distMap, rnd);
+                    dirty = Math.min(dirty, directedSegmentMutation(child, distMap, rnd));
                 }
                 // If child still looks poor (heuristic), apply greedy repair
                 if (rnd.nextDouble() < 0.2) {
-                    greedyRepair(child, genomeLength, distMap, rnd);
+                    dirty = Math.min(dirty, greedyRepair(child, genomeLength, distMap, rnd));
                 }
-                next.add(child);
+                parentOf[n] = c1;
+                firstDirty[n] = dirty;
             }
-            pop = next;
-            // Occasionally update UI with cost-only to avoid clutter
-            if (gen % 10 == 0) {
-                Integer uiCost = (br.path != null ? computeRouteCost(br.path) : null);
-                frame.updateMetrics(uiCost, null, null, (System.nanoTime()-t0)/1_000_000L, algoName);
-            }
-            gen++;
+            PackedGenome[] swap = pop;
+            pop = spare;
+            spare = swap;
+            GenomeWalker.Track[] swapTracks = tracks;
+            tracks = spareTracks;
+            spareTracks = swapTracks;
+            bred = true;
         }
-        long t1 = System.nanoTime();
-        // Render best path (paint finished route only once)
-        resetState();
-        if (bestPath != null) {
-            for (int[] cell : bestPath) {
-                if (cancelled) break;
-                int bx = cell[0], by = cell[1];
-                if (data.inArea(bx, by)) data.result[bx][by] = true;
+
+        private int pickParent() {
+            if (options.gaSelection == SolveOptions.SelectionStrategy.TOURNAMENT) {
+                return Selection.tournament(keys, size, Math.max(1, options.gaTournamentSize), rnd);
             }
-            frame.render(data);
+            return Selection.index(keys[rnd.nextInt(parentPool)]);
+        }
+
+        // Slot to takes a copy of src's elite slot from, walked afresh with the
+        // elite's walk seed (migrants share no checkpoints with this island)
+        void receive(Island src, int from, int to) {
+            pop[to].copyFrom(src.pop[from]);
+            parentOf[to] = -1;
+            seeds[to] = src.spareTracks[src.parentOf[from]].seed();
+        }
+
+        boolean isBetterThan(Island o) {
+            if (bestReached != o.bestReached) return bestReached;
+            return bestCost < o.bestCost;
         }
-        // Final report: show only the best route metrics
-        Integer finalCost = (bestPath != null ? computeRouteCost(bestPath) : null);
-        int finalSteps = (bestPath != null ? bestPath.size() : 0);
-        int finalVisited = (bestPath != null ? countUnique(bestPath) : 0);
-        frame.updateMetrics(finalCost, finalSteps, finalVisited, (t1-t0)/1_000_000L, algoName);
-        if (pos != null) pos.setData(-1, -1, false);
     }
 
-    // Helper: clear transient exploration marks used for travelling animation
-    private void clearTransientMarks() {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.path[i][j] = false;
-            }
+    // GA score: route cost plus penalties for invalid moves (50), revisits (2),
+    // trail length, and 120 per BFS step still left when the exit is not reached.
+    // Bred genomes resume from their parent's track; new ones walk from scratch.
+    private int evaluate(Generation g, int i, GenomeWalker walker) {
+        if (g.parentOf[i] >= 0) {
+            walker.resume(g.pop[i], goalBias, g.parentTracks[g.parentOf[i]], g.firstDirty[i], g.tracks[i]);
+        } else {
+            walker.walk(g.pop[i], goalBias, g.seeds[i], g.tracks[i]);
+        }
+        int cost = walker.routeCost() + walker.invalidMoves() * 50 + walker.revisits() * 2;
+        if (!walker.reached()) {
+            // Penalize non-finished routes proportional to remaining grid distance
+            cost += safeGoalDistance(distMap, walker.end()) * 120; // strong steering toward goal
         }
-        frame.render(data);
+        // Shorter solutions slightly preferred among ties
+        return cost + walker.length();
     }
 
-    // Animate the current best GA candidate path as travelling steps
-    private void renderTravellingPath(java.util.List<int[]> path) {
-        for (int[] cell : path) {
-            if (cancelled) break;
-            int x = cell[0], y = cell[1];
-            pos.setData(x, y, true); // uses pause based on UI speed
+    private GenomeWalker borrowWalker(int genomeLength) {
+        GenomeWalker walker = walkers.poll();
+        return walker != null ? walker : new GenomeWalker(data, distMap, genomeLength);
+    }
+
+    // One generation's evaluation inputs and outputs, by population slot
+    private static final class Generation {
+        final PackedGenome[] pop;
+        final GenomeWalker.Track[] tracks, parentTracks;
+        final int[] parentOf, firstDirty;
+        final long[] seeds;
+        final int[] costs;
+        final boolean[] reached;
+
+        Generation(PackedGenome[] pop, GenomeWalker.Track[] tracks, GenomeWalker.Track[] parentTracks,
+                   int[] parentOf, int[] firstDirty, long[] seeds, int[] costs, boolean[] reached) {
+            this.pop = pop;
+            this.tracks = tracks;
+            this.parentTracks = parentTracks;
+            this.parentOf = parentOf;
+            this.firstDirty = firstDirty;
+            this.seeds = seeds;
+            this.costs = costs;
+            this.reached = reached;
         }
-        // After travelling, keep the last travelled cells marked as path
-        frame.render(data);
     }
 
-    // Choose a move that reduces distance-to-goal (using distMap) and avoids walls.
-    private int chooseDirectedMove(int x, int y, int[][] distMap, java.util.Random rnd) {
-        int bestMove = -1;
-        int bestDist = safeGoalDistance(distMap, x, y);
-        for (int m = 0; m < 4; m++) {
-            int nx = x + directions[m][0];
-            int ny = y + directions[m][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx, ny) != MazeData.ROAD) continue;
-            int d = safeGoalDistance(distMap, nx, ny);
-            if (d < bestDist) {
-                bestDist = d;
-                bestMove = m;
+    // Evaluates slots [lo, hi) of a generation, halving the range down to EVAL_CHUNK genomes
+    private final class EvaluateTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final Generation g;
+        private final int genomeLength, lo, hi;
+
+        EvaluateTask(Generation g, int genomeLength, int lo, int hi) {
+            this.g = g;
+            this.genomeLength = genomeLength;
+            this.lo = lo;
+            this.hi = hi;
+        }
+
+        @Override
+        protected void compute() {
+            if (hi - lo > EVAL_CHUNK) {
+                int mid = (lo + hi) >>> 1;
+                invokeAll(new EvaluateTask(g, genomeLength, lo, mid),
+                          new EvaluateTask(g, genomeLength, mid, hi));
+                return;
             }
+            evaluateRange();
         }
-        if (bestMove != -1) return bestMove;
-        // fallback: any valid move
-        java.util.ArrayList<Integer> candidates = new java.util.ArrayList<>();
-        for (int m = 0; m < 4; m++) {
-            int nx = x + directions[m][0];
-            int ny = y + directions[m][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx, ny) != MazeData.ROAD) continue;
-            candidates.add(m);
+
+        void evaluateRange() {
+            GenomeWalker walker = borrowWalker(genomeLength);
+            try {
+                for (int i = lo; i < hi; i++) {
+                    g.costs[i] = evaluate(g, i, walker);
+                    g.reached[i] = walker.reached();
+                }
+            } finally {
+                walkers.offer(walker);
+            }
         }
-        if (!candidates.isEmpty()) return candidates.get(rnd.nextInt(candidates.size()));
-        return rnd.nextInt(4);
     }
 
-    // Replace a random segment with goal-directed steps
-    private void directedSegmentMutation(int[] g, int[][] distMap, java.util.Random rnd) {
-        int segLen = Math.max(5, Math.min(20, g.length / 6));
-        int startIdx = rnd.nextInt(Math.max(1, g.length - segLen));
+    // Choose a move that reduces distance-to-goal (using distMap) and avoids walls.
+    private int chooseDirectedMove(int cell, int[] distMap, SplittableRandom rnd) {
+        return GenomeWalker.chooseDirectedMove(data, distMap, cell, rnd);
+    }
+
+    // Replace a random segment with goal-directed steps; returns the segment start
+    private int directedSegmentMutation(PackedGenome g, int[] distMap, SplittableRandom rnd) {
+        int segLen = Math.max(5, Math.min(20, g.length() / 6));
+        int startIdx = rnd.nextInt(Math.max(1, g.length() - segLen));
         // Replace segment with goal-directed steps based on current simulated position
-        int x = data.getEntranceX(), y = data.getEntranceY();
+        int cur = data.getEntrance();
         for (int i = 0; i < startIdx; i++) {
-            int mv = g[i] % 4;
-            int nx = x + directions[mv][0];
-            int ny = y + directions[mv][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) continue;
-            x = nx; y = ny;
+            int next = data.neighbor(cur, g.get(i));
+            if (next < 0 || !data.isRoad(next)) continue;
+            cur = next;
         }
-        for (int i = startIdx; i < Math.min(g.length, startIdx + segLen); i++) {
-            int mv = chooseDirectedMove(x, y, distMap, rnd);
-            g[i] = mv;
-            int nx = x + directions[mv][0];
-            int ny = y + directions[mv][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) break;
-            x = nx; y = ny;
+        for (int i = startIdx; i < Math.min(g.length(), startIdx + segLen); i++) {
+            int mv = chooseDirectedMove(cur, distMap, rnd);
+            g.set(i, mv);
+            int next = data.neighbor(cur, mv);
+            if (next < 0 || !data.isRoad(next)) break;
+            cur = next;
         }
+        return startIdx;
     }
 
-    // Append a small greedy tail to help elites approach goal
-    private void greedyRepair(int[] g, int genomeLength, int[][] distMap, java.util.Random rnd) {
-        int x = data.getEntranceX(), y = data.getEntranceY();
+    // Append a small greedy tail to help elites approach goal; returns the first
+    // rewritten gene, or genomeLength when the genome already reaches the exit
+    private int greedyRepair(PackedGenome g, int genomeLength, int[] distMap, SplittableRandom rnd) {
+        int cur = data.getEntrance(), exit = data.getExit();
         for (int i = 0; i < genomeLength; i++) {
-            int mv = g[i] % 4;
-            int nx = x + directions[mv][0];
-            int ny = y + directions[mv][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) continue;
-            x = nx; y = ny;
-            if (x==data.getExitX() && y==data.getExitY()) return;
+            int next = data.neighbor(cur, g.get(i));
+            if (next < 0 || !data.isRoad(next)) continue;
+            cur = next;
+            if (cur == exit) return genomeLength;
         }
         // Replace last few steps with goal-directed steps
         int tail = Math.min(20, genomeLength/4);
         for (int i = genomeLength - tail; i < genomeLength; i++) {
-            int mv = chooseDirectedMove(x, y, distMap, rnd);
-            g[i] = mv;
-            int nx = x + directions[mv][0];
-            int ny = y + directions[mv][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) break;
-            x = nx; y = ny;
-            if (x==data.getExitX() && y==data.getExitY()) break;
+            int mv = chooseDirectedMove(cur, distMap, rnd);
+            g.set(i, mv);
+            int next = data.neighbor(cur, mv);
+            if (next < 0 || !data.isRoad(next)) break;
+            cur = next;
+            if (cur == exit) break;
         }
+        return genomeLength - tail;
     }
 
-    // Estimate shortest steps from entrance to exit using unweighted BFS (ignores weights)
+    // Shortest steps from entrance to exit ignoring weights, from the maze's cached BFS field
     private int estimateShortestSteps() {
-        int n = data.N(), m = data.M();
-        boolean[][] seen = new boolean[n][m];
-        java.util.ArrayDeque<Position> q = new java.util.ArrayDeque<>();
-        Position s = new Position(data.getEntranceX(), data.getEntranceY(), null);
-        q.add(s);
-        seen[s.x][s.y] = true;
-        while (!q.isEmpty()) {
-            Position cur = q.poll();
-            if (cur.x == data.getExitX() && cur.y == data.getExitY()) {
-                // count steps via backtracking
-                int steps = 0;
-                Position p = cur;
-                while (p != null) { steps++; p = p.prev; }
-                return steps;
-            }
-            for (int[] d : directions) {
-                int nx = cur.x + d[0], ny = cur.y + d[1];
-                if (data.inArea(nx, ny) && !seen[nx][ny] && data.getMazeChar(nx,ny)==MazeData.ROAD) {
-                    seen[nx][ny] = true;
-                    q.add(new Position(nx, ny, cur));
-                }
-            }
-        }
+        MazeFields fields = MazeFields.of(data);
+        // steps counted as cells on the route, start included
+        if (fields.isSolvable()) return fields.stepsToGoal()[data.getEntrance()] + 1;
         // fallback to Manhattan distance + padding if unreachable by BFS
         int md = Math.abs(data.getEntranceX()-data.getExitX()) + Math.abs(data.getEntranceY()-data.getExitY());
         return md + 20;
     }
 
     // Generate a genome that tends to move toward the goal while avoiding walls
-    private int[] generateDirectedGenome(int length, int[][] distMap, java.util.Random r) {
-        int[] g = new int[length];
-        int x = data.getEntranceX(), y = data.getEntranceY();
-        for (int i = 0; i < length; i++) {
+    private void generateDirectedGenome(PackedGenome g, int[] distMap, SplittableRandom r) {
+        int cur = data.getEntrance(), exit = data.getExit();
+        for (int i = 0; i < g.length(); i++) {
             int mv;
             // Mostly choose directed moves; occasional random to escape dead-ends
             if (r.nextDouble() < 0.85) {
-                mv = chooseDirectedMove(x, y, distMap, r);
+                mv = chooseDirectedMove(cur, distMap, r);
             } else {
                 mv = r.nextInt(4);
             }
-            g[i] = mv;
-            int nx = x + directions[mv][0];
-            int ny = y + directions[mv][1];
-            if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) continue;
-            x = nx; y = ny;
-            if (x==data.getExitX() && y==data.getExitY()) break;
-        }
-        return g;
-    }
-
-    private int safeGoalDistance(int[][] distMap, int x, int y) {
-        if (distMap == null || !data.inArea(x, y)) {
-            return Math.abs(x - data.getExitX()) + Math.abs(y - data.getExitY());
+            g.set(i, mv);
+            int next = data.neighbor(cur, mv);
+            if (next < 0 || !data.isRoad(next)) continue;
+            cur = next;
+            if (cur == exit) break;
         }
-        int d = distMap[x][y];
-        if (d == Integer.MAX_VALUE) {
-            return (Math.abs(x - data.getExitX()) + Math.abs(y - data.getExitY())) * 5;
-        }
-        return d;
     }
 
-    // BFS from goal to compute shortest steps ignoring weights; used for fitness/direction.
-    private int[][] computeDistanceMap() {
-        int n = data.N(), m = data.M();
-        int[][] dist = new int[n][m];
-        for (int i = 0; i < n; i++) {
-            for (int j = 0; j < m; j++) dist[i][j] = Integer.MAX_VALUE;
-        }
-        int gx = data.getExitX(), gy = data.getExitY();
-        if (!data.inArea(gx, gy) || data.getMazeChar(gx, gy) != MazeData.ROAD) return dist;
-
-        java.util.ArrayDeque<int[]> q = new java.util.ArrayDeque<>();
-        dist[gx][gy] = 0;
-        q.add(new int[]{gx, gy});
-        while (!q.isEmpty()) {
-            int[] cur = q.poll();
-            int x = cur[0], y = cur[1];
-            int cd = dist[x][y];
-            for (int[] d : directions) {
-                int nx = x + d[0], ny = y + d[1];
-                if (!data.inArea(nx, ny)) continue;
-                if (data.getMazeChar(nx, ny) != MazeData.ROAD) continue;
-                if (dist[nx][ny] != Integer.MAX_VALUE) continue;
-                dist[nx][ny] = cd + 1;
-                q.add(new int[]{nx, ny});
-            }
-        }
-        return dist;
+    private int safeGoalDistance(int[] distMap, int cell) {
+        return GenomeWalker.goalDistance(data, distMap, cell);
     }
 
-    private int computeRouteCost(java.util.List<int[]> path) {
-        if (path == null || path.size() < 2) return 0;
+    private int computeRouteCost(int[] path) {
+        if (path == null || path.length < 2) return 0;
         int cost = 0;
-        for (int i = 1; i < path.size(); i++) {
-            int x = path.get(i)[0];
-            int y = path.get(i)[1];
-            if (!data.inArea(x, y)) continue;
-            int w = (data.weight != null ? data.weight[x][y] : 1);
-            cost += (w > 0 ? w : 1);
+        for (int i = 1; i < path.length; i++) {
+            cost += data.stepCost(path[i]);
         }
         return cost;
     }
 
-    private int countUnique(java.util.List<int[]> path) {
+    private int countUnique(int[] path) {
         if (path == null) return 0;
-        boolean[][] seen = new boolean[data.N()][data.M()];
+        boolean[] seen = new boolean[data.cellCount()];
         int c = 0;
-        for (int[] cell : path) {
-            int x = cell[0], y = cell[1];
-            if (!data.inArea(x, y)) continue;
-            if (!seen[x][y]) {
-                seen[x][y] = true;
+        for (int cell : path) {
+            if (!seen[cell]) {
+                seen[cell] = true;
                 c++;
             }
         }
         return c;
     }
-
-
-    private void resetState() {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.visited[i][j] = false;
-                data.path[i][j] = false;
-                data.result[i][j] = false;
-            }
-        }
-        frame.setTitle("Maze Solver - " + getMazeLabel());
-        frame.render(data);
-    }
-
-    // Helper: returns a friendly label for the currently loaded maze (file name or size)
-    private String getMazeLabel() {
-        // Prefer original source file name via toString if MazeData exposes it
-        try {
-            if (data != null) {
-                String s = data.toString();
-                if (s != null && !s.trim().isEmpty()) return s;
-            }
-        } catch (Throwable ignored) {}
-        // Fallback to dimensions
-        if (data != null) {
-            return data.N() + "x" + data.M();
-        }
-        return "(no maze)";
-    }
 }
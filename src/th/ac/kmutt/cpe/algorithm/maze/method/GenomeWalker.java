@@ -0,0 +1,263 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Allocation-free genome evaluation kernel shared by both GA engines. A walker
+// belongs to one thread at a time and reuses its buffers for every genome:
+//  - loop detection stamps cells with the walk's epoch, so starting a walk
+//    clears the visited set by bumping one counter
+//  - the trajectory is written into a reusable int[] of cell ids and only
+//    copied out on request (the generation's best candidate)
+// Goal-bias overrides draw from an internal SplitMix64 stream reseeded for each
+// genome, so a walk can be replayed exactly from its seed.
+// A walk can also be recorded into a Track, which keeps the trail plus a
+// checkpoint (trail length, cost, penalties, stream state) every
+// CHECKPOINT_INTERVAL genes. A child that shares its first genes with a parent
+// then resumes from the parent's last checkpoint before the first changed gene:
+// the loop set is rebuilt by stamping the copied trail prefix, which is far
+// cheaper than re-simulating those moves.
+public final class GenomeWalker {
+    static final int CHECKPOINT_INTERVAL = 32;
+
+    private final MazeView data;
+    private final int[] distMap;
+    private final int[] stamp;
+    private final SeededStream rnd = new SeededStream();
+    private int epoch;
+    private Track own;   // for walks the caller does not keep
+    private Track last;  // results of the last walk or resume
+
+    // distMap may be null when no goal bias is used
+    public GenomeWalker(MazeView data, int[] distMap, int genomeLength) {
+        this.data = data;
+        this.distMap = distMap;
+        this.stamp = new int[data.cellCount()];
+        this.own = new Track(genomeLength);
+    }
+
+    // One genome's last walk: its trail, results and prefix checkpoints
+    public static final class Track {
+        final int[] trail;
+        final int[] cpTrailLength, cpCost, cpInvalid, cpLoops;
+        final long[] cpStream;
+        int checkpoints;
+        int genesUsed;   // genes consumed before the walk stopped
+        long seed;
+        int length, end, routeCost, invalidMoves, revisits;
+
+        public Track(int genomeLength) {
+            trail = new int[genomeLength + 1];
+            int n = genomeLength / CHECKPOINT_INTERVAL + 1;
+            cpTrailLength = new int[n];
+            cpCost = new int[n];
+            cpInvalid = new int[n];
+            cpLoops = new int[n];
+            cpStream = new long[n];
+        }
+
+        // Seed of the walk's goal-bias stream, shared by resumed children
+        public long seed() {
+            return seed;
+        }
+
+        public int[] copyTrail() {
+            return Arrays.copyOf(trail, length);
+        }
+
+        private void copyCheckpoints(Track src, int count) {
+            System.arraycopy(src.cpTrailLength, 0, cpTrailLength, 0, count);
+            System.arraycopy(src.cpCost, 0, cpCost, 0, count);
+            System.arraycopy(src.cpInvalid, 0, cpInvalid, 0, count);
+            System.arraycopy(src.cpLoops, 0, cpLoops, 0, count);
+            System.arraycopy(src.cpStream, 0, cpStream, 0, count);
+        }
+
+        private void copyFrom(Track src) {
+            System.arraycopy(src.trail, 0, trail, 0, src.length);
+            copyCheckpoints(src, src.checkpoints);
+            checkpoints = src.checkpoints;
+            genesUsed = src.genesUsed;
+            seed = src.seed;
+            length = src.length;
+            end = src.end;
+            routeCost = src.routeCost;
+            invalidMoves = src.invalidMoves;
+            revisits = src.revisits;
+        }
+    }
+
+    // Walk from the entrance until the genome runs out or the exit is entered.
+    // Moves into walls or off the grid are skipped and counted as invalid.
+    // With goalBias > 0 each gene is replaced by a goal-directed move with that
+    // probability, drawing from a stream seeded with seed.
+    public void walk(PackedGenome genome, double goalBias, long seed) {
+        if (own.trail.length < genome.length() + 1) own = new Track(genome.length());
+        walk(genome, goalBias, seed, own);
+    }
+
+    // Same walk, recorded into track
+    public void walk(PackedGenome genome, double goalBias, long seed, Track track) {
+        int start = data.getEntrance();
+        nextEpoch();
+        rnd.state = seed;
+        track.seed = seed;
+        track.trail[0] = start;
+        stamp[start] = epoch;
+        run(genome, goalBias, 0, 1, 0, 0, 0, track);
+    }
+
+    // Walk genome, which matches the genome recorded in parent on genes
+    // [0, firstDirty), continuing the parent's stream. Gives the same result
+    // as a full walk with the parent's seed.
+    public void resume(PackedGenome genome, double goalBias, Track parent, int firstDirty, Track track) {
+        if (firstDirty >= parent.genesUsed) {
+            // The parent stopped before reaching any changed gene
+            track.copyFrom(parent);
+            last = track;
+            return;
+        }
+        int c = Math.min(firstDirty / CHECKPOINT_INTERVAL, parent.checkpoints - 1);
+        track.copyCheckpoints(parent, c);
+        track.seed = parent.seed;
+        int len = parent.cpTrailLength[c];
+        System.arraycopy(parent.trail, 0, track.trail, 0, len);
+        nextEpoch();
+        for (int k = 0; k < len; k++) stamp[track.trail[k]] = epoch;
+        rnd.state = parent.cpStream[c];
+        run(genome, goalBias, c * CHECKPOINT_INTERVAL, len, parent.cpCost[c], parent.cpInvalid[c], parent.cpLoops[c], track);
+    }
+
+    // Simulate from gene (a checkpoint boundary) with the trail [0, len) already stamped
+    private void run(PackedGenome genome, double goalBias, int gene, int len, int cost, int invalid, int loops, Track t) {
+        final int exit = data.getExit();
+        final int[] trail = t.trail;
+        int cur = trail[len - 1];
+        int cp = gene / CHECKPOINT_INTERVAL;
+        int i = gene;
+        for (int n = genome.length(); i < n; i++) {
+            if ((i & (CHECKPOINT_INTERVAL - 1)) == 0) {
+                t.cpTrailLength[cp] = len;
+                t.cpCost[cp] = cost;
+                t.cpInvalid[cp] = invalid;
+                t.cpLoops[cp] = loops;
+                t.cpStream[cp] = rnd.state;
+                cp++;
+            }
+            int move = genome.get(i);
+            if (goalBias > 0 && rnd.nextDouble() < goalBias) {
+                move = chooseDirectedMove(data, distMap, cur, rnd);
+            }
+            int next = data.neighbor(cur, move);
+            if (next < 0 || !data.isRoad(next)) {
+                invalid++;
+                continue;
+            }
+            cur = next;
+            cost += data.stepCost(cur);
+            if (stamp[cur] == epoch) loops++; else stamp[cur] = epoch;
+            trail[len++] = cur;
+            if (cur == exit) {
+                i++;
+                break;
+            }
+        }
+        t.checkpoints = cp;
+        t.genesUsed = i;
+        t.length = len;
+        t.end = cur;
+        t.routeCost = cost;
+        t.invalidMoves = invalid;
+        t.revisits = loops;
+        last = t;
+    }
+
+    private void nextEpoch() {
+        if (++epoch == 0) {
+            Arrays.fill(stamp, 0);
+            epoch = 1;
+        }
+    }
+
+    public boolean reached() {
+        return last.end == data.getExit();
+    }
+
+    // Cells on the trail, entrance included
+    public int length() {
+        return last.length;
+    }
+
+    public int end() {
+        return last.end;
+    }
+
+    // Sum of entered cells' step costs
+    public int routeCost() {
+        return last.routeCost;
+    }
+
+    public int invalidMoves() {
+        return last.invalidMoves;
+    }
+
+    // Moves into a cell already on the trail
+    public int revisits() {
+        return last.revisits;
+    }
+
+    public int[] copyTrail() {
+        return last.copyTrail();
+    }
+
+    // Move that lowers distance-to-goal, else a random open move, else any move
+    static int chooseDirectedMove(MazeView data, int[] distMap, int cell, RandomGenerator rnd) {
+        int bestMove = -1;
+        int bestDist = goalDistance(data, distMap, cell);
+        int open = 0;
+        for (int m = 0; m < 4; m++) {
+            int next = data.neighbor(cell, m);
+            if (next < 0 || !data.isRoad(next)) continue;
+            open++;
+            int d = goalDistance(data, distMap, next);
+            if (d < bestDist) {
+                bestDist = d;
+                bestMove = m;
+            }
+        }
+        if (bestMove != -1) return bestMove;
+        if (open == 0) return rnd.nextInt(4);
+        // k-th open move, without collecting them into an array
+        int k = rnd.nextInt(open);
+        for (int m = 0; m < 4; m++) {
+            int next = data.neighbor(cell, m);
+            if (next < 0 || !data.isRoad(next)) continue;
+            if (k-- == 0) return m;
+        }
+        return bestMove;
+    }
+
+    // BFS steps to the exit; cells cut off from it fall back to a padded Manhattan distance
+    static int goalDistance(MazeView data, int[] distMap, int cell) {
+        int manhattan = Math.abs(data.cellX(cell) - data.getExitX()) + Math.abs(data.cellY(cell) - data.getExitY());
+        if (distMap == null) return manhattan;
+        int d = distMap[cell];
+        if (d == MazeFields.UNREACHABLE) return manhattan * 5;
+        return d;
+    }
+
+    // SplitMix64, the generator behind SplittableRandom, with a settable state
+    private static final class SeededStream implements RandomGenerator {
+        long state;
+
+        @Override
+        public long nextLong() {
+            long z = (state += 0x9e3779b97f4a7c15L);
+            z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+            z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+            return z ^ (z >>> 31);
+        }
+    }
+}
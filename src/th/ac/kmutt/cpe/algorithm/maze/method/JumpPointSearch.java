@@ -0,0 +1,163 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Jump Point Search for 4-connected grids where every road costs the same.
+// Instead of queueing each open cell, the search scans straight lines and only
+// stops at jump points: the goal, cells with a forced neighbour (a side opening
+// that was blocked one cell back), and on vertical runs any cell whose
+// horizontal scans reach a jump point. A* then runs over jump points only,
+// so open rooms cost a few scans instead of one expansion per cell.
+// On weighted mazes the route is fewest steps, like BFS, not cheapest.
+public class JumpPointSearch implements Solver {
+    private MazeView data;
+    private int goal;
+
+    @Override
+    public String name() {
+        return "JPS";
+    }
+
+    @Override
+    public SolveResult solve(MazeView data, SolveOptions options, SolveListener listener) {
+        this.data = data;
+        if (listener == null) listener = SolveListener.NONE;
+        CancellationToken cancel = CancellationToken.of(options);
+        int start = data.getEntrance();
+        goal = data.getExit();
+        int[] g = new int[data.cellCount()];
+        int[] parent = new int[data.cellCount()];
+        boolean[] closed = new boolean[data.cellCount()];
+        Arrays.fill(g, Integer.MAX_VALUE);
+        g[start] = 0;
+        parent[start] = -1;
+
+        IndexedMinHeap open = new IndexedMinHeap(data.cellCount());
+        open.pushOrDecrease(start, heuristic(start));
+
+        boolean isSolved = false;
+        int visitedCount = 0;
+        long t0 = System.nanoTime();
+        int[] jumps = new int[4];
+
+        while (!open.isEmpty() && !cancel.isCancelled()) {
+            int cur = open.pop();
+            closed[cur] = true;
+            visitedCount++;
+            listener.onVisit(cur);
+            if (cur == goal) { isSolved = true; break; }
+            int count = successors(cur, parent[cur], jumps);
+            for (int i = 0; i < count; i++) {
+                int next = jumps[i];
+                if (closed[next]) continue;
+                int newCost = g[cur] + distanceSteps(cur, next);
+                if (newCost < g[next]) {
+                    g[next] = newCost;
+                    parent[next] = cur;
+                    open.pushOrDecrease(next, newCost + heuristic(next));
+                }
+            }
+        }
+
+        long t1 = System.nanoTime();
+        SolveMetrics metrics = new SolveMetrics();
+        metrics.cancelled = !isSolved && cancel.isCancelled();
+        metrics.expanded = visitedCount;
+        metrics.frontier(open);
+        if (isSolved) {
+            int[] path = expand(SolveResult.tracePath(parent, goal));
+            int cost = 0;
+            for (int i = 1; i < path.length; i++) cost += data.stepCost(path[i]);
+            return new SolveResult(name(), cost, path.length, visitedCount, t1 - t0, path, metrics);
+        }
+        return new SolveResult(name(), null, null, visitedCount, t1 - t0, null, metrics);
+    }
+
+    // Jump points reachable from cur. The start scans all four ways; other cells
+    // keep going forward and try both sides of the direction they were reached in.
+    private int successors(int cur, int from, int[] out) {
+        int x = data.cellX(cur), y = data.cellY(cur);
+        int count = 0;
+        if (from < 0) {
+            count = add(out, count, jumpVertical(x, y, -1));
+            count = add(out, count, jumpVertical(x, y, 1));
+            count = add(out, count, jumpHorizontal(x, y, -1));
+            count = add(out, count, jumpHorizontal(x, y, 1));
+            return count;
+        }
+        int dx = Integer.signum(x - data.cellX(from));
+        int dy = Integer.signum(y - data.cellY(from));
+        if (dy != 0) {
+            count = add(out, count, jumpHorizontal(x, y, dy));
+            count = add(out, count, jumpVertical(x, y, -1));
+            count = add(out, count, jumpVertical(x, y, 1));
+        } else {
+            count = add(out, count, jumpVertical(x, y, dx));
+            count = add(out, count, jumpHorizontal(x, y, -1));
+            count = add(out, count, jumpHorizontal(x, y, 1));
+        }
+        return count;
+    }
+
+    private static int add(int[] out, int count, int cell) {
+        if (cell >= 0) out[count++] = cell;
+        return count;
+    }
+
+    // Scan along row x in direction dy; -1 when a wall or the edge comes first
+    private int jumpHorizontal(int x, int y, int dy) {
+        while (true) {
+            y += dy;
+            if (!open(x, y)) return -1;
+            int cell = data.index(x, y);
+            if (cell == goal) return cell;
+            if ((open(x - 1, y) && !open(x - 1, y - dy)) || (open(x + 1, y) && !open(x + 1, y - dy))) return cell;
+        }
+    }
+
+    // Scan along column y in direction dx, branching into rows at every cell
+    private int jumpVertical(int x, int y, int dx) {
+        while (true) {
+            x += dx;
+            if (!open(x, y)) return -1;
+            int cell = data.index(x, y);
+            if (cell == goal) return cell;
+            if ((open(x, y - 1) && !open(x - dx, y - 1)) || (open(x, y + 1) && !open(x - dx, y + 1))) return cell;
+            if (jumpHorizontal(x, y, -1) >= 0 || jumpHorizontal(x, y, 1) >= 0) return cell;
+        }
+    }
+
+    private boolean open(int x, int y) {
+        return data.inArea(x, y) && data.isRoad(data.index(x, y));
+    }
+
+    private int heuristic(int cell) {
+        return Math.abs(data.cellX(cell) - data.getExitX()) + Math.abs(data.cellY(cell) - data.getExitY());
+    }
+
+    // Fill in the straight runs between consecutive jump points
+    private int[] expand(int[] jumpPath) {
+        int len = 1;
+        for (int i = 1; i < jumpPath.length; i++) len += distanceSteps(jumpPath[i - 1], jumpPath[i]);
+        int[] path = new int[len];
+        int k = 0;
+        path[k++] = jumpPath[0];
+        for (int i = 1; i < jumpPath.length; i++) {
+            int x = data.cellX(jumpPath[i - 1]), y = data.cellY(jumpPath[i - 1]);
+            int dx = Integer.signum(data.cellX(jumpPath[i]) - x), dy = Integer.signum(data.cellY(jumpPath[i]) - y);
+            for (int s = distanceSteps(jumpPath[i - 1], jumpPath[i]); s > 0; s--) {
+                x += dx;
+                y += dy;
+                path[k++] = data.index(x, y);
+            }
+        }
+        return path;
+    }
+
+    // Jump points lie on a shared row or column, so this is the straight-line step count
+    private int distanceSteps(int a, int b) {
+        return Math.abs(data.cellX(a) - data.cellX(b)) + Math.abs(data.cellY(a) - data.cellY(b));
+    }
+}
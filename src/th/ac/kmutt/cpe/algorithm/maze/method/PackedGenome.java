@@ -0,0 +1,103 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.random.RandomGenerator;
+
+// A GA genome of moves 0..3 (up, right, down, left) packed 2 bits per move,
+// 32 moves per long. Crossover copies whole words and masks only the two
+// boundary words; mutation jumps straight to the next mutated gene with a
+// geometric skip instead of drawing a coin for every gene. Bits past length
+// are kept zero.
+public final class PackedGenome {
+    private static final int MOVES_PER_WORD = 32;
+
+    private final long[] words;
+    private final int length;
+
+    public PackedGenome(int length) {
+        this.length = length;
+        this.words = new long[(length + MOVES_PER_WORD - 1) / MOVES_PER_WORD];
+    }
+
+    public int length() {
+        return length;
+    }
+
+    public int get(int i) {
+        return (int) (words[i >>> 5] >>> ((i & 31) << 1)) & 3;
+    }
+
+    public void set(int i, int move) {
+        int shift = (i & 31) << 1;
+        int w = i >>> 5;
+        words[w] = (words[w] & ~(3L << shift)) | ((long) (move & 3) << shift);
+    }
+
+    // Every move uniform over 0..3, one random long per 32 moves
+    public void randomize(RandomGenerator rnd) {
+        for (int w = 0; w < words.length; w++) words[w] = rnd.nextLong();
+        clearTail();
+    }
+
+    public void copyFrom(PackedGenome src) {
+        System.arraycopy(src.words, 0, words, 0, words.length);
+    }
+
+    public PackedGenome copy() {
+        PackedGenome g = new PackedGenome(length);
+        g.copyFrom(this);
+        return g;
+    }
+
+    // Moves [from, to) taken from src, the rest left as they are
+    public void copyRange(PackedGenome src, int from, int to) {
+        if (from >= to) return;
+        int fw = from >>> 5, lw = (to - 1) >>> 5;
+        long firstMask = -1L << ((from & 31) << 1);
+        long lastMask = -1L >>> (62 - (((to - 1) & 31) << 1));
+        if (fw == lw) {
+            long m = firstMask & lastMask;
+            words[fw] = (words[fw] & ~m) | (src.words[fw] & m);
+            return;
+        }
+        words[fw] = (words[fw] & ~firstMask) | (src.words[fw] & firstMask);
+        System.arraycopy(src.words, fw + 1, words, fw + 1, lw - fw - 1);
+        words[lw] = (words[lw] & ~lastMask) | (src.words[lw] & lastMask);
+    }
+
+    // child = a[0, cut) + b[cut, length)
+    public static void onePoint(PackedGenome a, PackedGenome b, int cut, PackedGenome child) {
+        child.copyFrom(a);
+        child.copyRange(b, cut, a.length);
+    }
+
+    // child = a with [from, to) taken from b
+    public static void twoPoint(PackedGenome a, PackedGenome b, int from, int to, PackedGenome child) {
+        child.copyFrom(a);
+        child.copyRange(b, from, to);
+    }
+
+    // Each move is redrawn uniformly with probability rate. The gaps between
+    // mutated moves are geometric, so only the mutated moves cost a draw.
+    // Returns the first redrawn position, or length when none was.
+    public int mutate(double rate, RandomGenerator rnd) {
+        if (rate <= 0) return length;
+        if (rate >= 1) {
+            randomize(rnd);
+            return 0;
+        }
+        double logKeep = Math.log1p(-rate);
+        int first = length;
+        long i = -1;
+        while (true) {
+            i += 1 + (long) (Math.log(1.0 - rnd.nextDouble()) / logKeep);
+            if (i >= length) return first;
+            if (first == length) first = (int) i;
+            set((int) i, rnd.nextInt(4));
+        }
+    }
+
+    private void clearTail() {
+        int used = length & 31;
+        if (used != 0) words[words.length - 1] &= -1L >>> (64 - (used << 1));
+    }
+}
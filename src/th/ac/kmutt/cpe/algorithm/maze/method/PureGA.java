@@ -1,159 +1,143 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
 
-import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
-import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeFields;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
 
-public class PureGA {
-    private static final int directions[][] = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
-    MazeData data;
-    MazeFrame frame;
-    Position pos;
-    private volatile boolean cancelled = false;
+public class PureGA implements Solver {
+    private MazeView data;
+    private SolveOptions options;
+    private SolveListener listener;
 
-    public  void runPureGenetic() {
+    @Override
+    public String name() {
+        return "PureGA";
+    }
+
+    @Override
+    public SolveResult solve(MazeView maze, SolveOptions options, SolveListener listener) {
+        this.data = maze;
+        this.options = options != null ? options : new SolveOptions();
+        this.listener = listener != null ? listener : SolveListener.NONE;
+        return runPureGenetic(CancellationToken.of(this.options));
+    }
+
+    private SolveResult runPureGenetic(CancellationToken cancel) {
         // PureGA: travelling RANDOMLY ONLY.
         // - No goal-directed move selection
         // - No distance-map based guidance
         // - No repair operators
         // Still evolves with selection + elitism + crossover + mutation.
-        final int populationSize = Math.max(10, frame.getGaPopulation());
+        final int populationSize = Math.max(10, options.gaPopulation);
         // Used only as a post-solution improvement budget; before reaching goal we keep running.
-        final int improveGenerationsBudget = Math.max(1, frame.getGaGenerations());
+        final int improveGenerationsBudget = Math.max(1, options.gaGenerations);
         int area = data.N() * data.M();
         int estSteps = Math.max(data.N() + data.M(), estimateShortestSteps());
         // Random-only genomes need extra slack to have a chance to reach the goal.
         final int genomeLength = Math.max(estSteps * 4, Math.min(800, Math.max(200, area)));
-        final double mutationRate = frame.getGaMutationRate();
+        final double mutationRate = options.gaMutationRate;
         final java.util.Random rnd = new java.util.Random();
 
-        // Helper to evaluate a genome
+        // Every genome is walked by one reusable walker; only the best trail is copied.
         // routeCost: true path cost (sum of entered cell weights, excluding start)
         // fitness: GA score used to guide search (routeCost + penalties)
-        class EvalResult { int fitness; int routeCost; java.util.List<int[]> path; boolean reached; }
-        java.util.function.Function<int[], EvalResult> evaluate = genome -> {
-            // reset temp visited
-            boolean[][] seen = new boolean[data.N()][data.M()];
-            int x = data.getEntranceX(), y = data.getEntranceY();
-            int fitness = 0;
-            int routeCost = 0;
-            java.util.ArrayList<int[]> path = new java.util.ArrayList<>();
-            path.add(new int[]{x,y});
-            seen[x][y] = true;
-            for (int i=0;i<genome.length;i++) {
-                int move = genome[i]%4;
-                int[] d = directions[move];
-                int nx = x + d[0], ny = y + d[1];
-                if (!data.inArea(nx, ny) || data.getMazeChar(nx,ny)!=MazeData.ROAD) {
-                    fitness += 50; // heavier penalty for invalid move
-                    continue;
-                }
-                x = nx; y = ny;
-                int w = data.weight!=null?data.weight[x][y]:1;
-                int stepCost = w>0?w:1;
-                routeCost += stepCost;
-                fitness += stepCost;
-                if (!seen[x][y]) {
-                    seen[x][y]=true;
-                } else {
-                    fitness += 2; // small loop penalty
-                }
-                path.add(new int[]{x,y});
-                if (x==data.getExitX() && y==data.getExitY()) break;
-            }
-            boolean reached = (x==data.getExitX() && y==data.getExitY());
-            if (!reached) {
-                // Random-only: penalize based on Manhattan distance to goal.
-                int d = Math.abs(x - data.getExitX()) + Math.abs(y - data.getExitY());
-                fitness += d * 200;
-            }
-            // Shorter solutions slightly preferred among ties
-            fitness += path.size();
-            EvalResult r = new EvalResult();
-            r.fitness=fitness;
-            r.routeCost=routeCost;
-            r.path=path;
-            r.reached=reached;
-            return r;
-        };
-
-        class Candidate {
-            final int[] genome;
-            final EvalResult eval;
-            Candidate(int[] genome, EvalResult eval) { this.genome = genome; this.eval = eval; }
-        }
-
-        // Initialize population (random only)
-        java.util.List<int[]> pop = new java.util.ArrayList<>(populationSize);
+        final GenomeWalker walker = new GenomeWalker(data, null, genomeLength);
+
+        // Initialize population (random only). Generations alternate between two
+        // fixed sets of genomes, so breeding overwrites instead of allocating.
+        // A bred genome resumes its walk from its first parent's Track at the
+        // first gene that differs from that parent.
+        PackedGenome[] pop = new PackedGenome[populationSize];
+        PackedGenome[] spare = new PackedGenome[populationSize];
+        GenomeWalker.Track[] tracks = new GenomeWalker.Track[populationSize];
+        GenomeWalker.Track[] spareTracks = new GenomeWalker.Track[populationSize];
+        int[] parentOf = new int[populationSize];
+        int[] firstDirty = new int[populationSize];
+        int[] routeCosts = new int[populationSize];
+        int[] steps = new int[populationSize];
+        boolean[] reached = new boolean[populationSize];
+        long[] keys = new long[populationSize];
+        int eliteCount = Math.max(1, Math.min(options.gaElitismCount, populationSize-1));
+        int parentPool = Math.max(eliteCount, Math.min(populationSize, 20));
         for (int i=0;i<populationSize;i++){
-            int[] g=new int[genomeLength];
-            for(int j=0;j<genomeLength;j++) g[j]=rnd.nextInt(4);
-            pop.add(g);
+            pop[i] = new PackedGenome(genomeLength);
+            spare[i] = new PackedGenome(genomeLength);
+            tracks[i] = new GenomeWalker.Track(genomeLength);
+            spareTracks[i] = new GenomeWalker.Track(genomeLength);
+            pop[i].randomize(rnd);
+            parentOf[i] = -1;
         }
 
         int bestRouteCost = Integer.MAX_VALUE;
         int bestSteps = Integer.MAX_VALUE;
-        java.util.List<int[]> bestPath=null;
+        int[] bestPath=null;
         boolean bestReached=false;
-        String algoName="PureGA";
+        String algoName=name();
+        SolveMetrics metrics = new SolveMetrics();
         long t0 = System.nanoTime();
+        long lastRank = t0;
         int gen = 0;
         int stagnation = 0;
         int improveGen = 0;
         // Keep running until we reach the goal (or cancelled). After reaching, try to improve a bit.
-        while (!cancelled) {
+        // A cancelled run keeps the best goal-reaching path found so far, if any.
+        while (true) {
+            if (cancel.isCancelled()) { metrics.cancelled = true; break; }
             // Evaluate with alignment
-            java.util.List<Candidate> candidates = new java.util.ArrayList<>(populationSize);
-            for (int[] g : pop) candidates.add(new Candidate(g, evaluate.apply(g)));
-            // Sort by reached then shortest routeCost (and steps) for finished paths;
-            // otherwise by fitness for unfinished paths.
-            candidates.sort((a, b) -> {
-                int c1 = (a.eval.reached ? 0 : 1);
-                int c2 = (b.eval.reached ? 0 : 1);
-                if (c1 != c2) return Integer.compare(c1, c2);
-                if (a.eval.reached) {
-                    int rc = Integer.compare(a.eval.routeCost, b.eval.routeCost);
-                    if (rc != 0) return rc;
-                    return Integer.compare(a.eval.path.size(), b.eval.path.size());
-                }
-                return Integer.compare(a.eval.fitness, b.eval.fitness);
-            });
+            for (int i = 0; i < populationSize; i++) {
+                if (parentOf[i] >= 0) walker.resume(pop[i], 0, spareTracks[parentOf[i]], firstDirty[i], tracks[i]);
+                else walker.walk(pop[i], 0, 0, tracks[i]);
+                routeCosts[i] = walker.routeCost();
+                steps[i] = walker.length();
+                reached[i] = walker.reached();
+                // Rank finished paths by routeCost then steps (at most
+                // genomeLength + 1); unfinished ones by fitness
+                long rank = reached[i] ? (long) routeCosts[i] * (genomeLength + 2) + steps[i] : fitness(walker);
+                keys[i] = Selection.key(reached[i], rank, i);
+            }
+            // Only the parent pool is put in order
+            Selection.selectTop(keys, populationSize, parentPool);
+            int reachedCount = 0;
+            long rankSum = 0;
+            for (int i = 0; i < populationSize; i++) {
+                if (reached[i]) reachedCount++;
+                rankSum += Selection.cost(keys[i]);
+            }
             // Elitism
-            java.util.List<int[]> next = new java.util.ArrayList<>(populationSize);
-            int eliteCount = Math.max(1, Math.min(frame.getGaElitismCount(), populationSize-1));
             for (int i=0;i<eliteCount;i++) {
-                int[] elite = candidates.get(i).genome.clone();
-                next.add(elite);
+                int e = Selection.index(keys[i]);
+                spare[i].copyFrom(pop[e]);
+                parentOf[i] = e;
+                firstDirty[i] = genomeLength;
             }
             // Track best
-            EvalResult br = candidates.get(0).eval;
+            int br = Selection.index(keys[0]);
             boolean improved = false;
-            if (br.reached) {
+            if (reached[br]) {
                 if (!bestReached
-                    || br.routeCost < bestRouteCost
-                    || (br.routeCost == bestRouteCost && br.path.size() < bestSteps)) {
+                    || routeCosts[br] < bestRouteCost
+                    || (routeCosts[br] == bestRouteCost && steps[br] < bestSteps)) {
                     bestReached = true;
-                    bestRouteCost = br.routeCost;
-                    bestSteps = br.path.size();
-                    bestPath = br.path;
+                    bestRouteCost = routeCosts[br];
+                    bestSteps = steps[br];
+                    bestPath = tracks[br].copyTrail();
                     improved = true;
                 }
             }
 
             if (improved) stagnation = 0; else stagnation++;
+            long now = System.nanoTime();
+            metrics.addGeneration(algoName, 0, gen, populationSize, Selection.cost(keys[0]),
+                rankSum / (double) populationSize, reachedCount, stagnation, now - lastRank);
+            lastRank = now;
 
             // Animate occasionally to keep UI responsive
-            if (!cancelled && br.path != null && gen % 5 == 0) {
-                clearTransientMarks();
-                renderTravellingPath(br.path);
+            if (!cancel.isCancelled() && gen % 5 == 0) {
+                listener.onCandidate(tracks[br].copyTrail());
             }
             // Before reaching the goal: never stop; if stuck, re-seed population and keep going.
             if (!bestReached && stagnation > 200) {
-                pop = new java.util.ArrayList<>(populationSize);
-                for (int i = 0; i < populationSize; i++) {
-                    int[] g = new int[genomeLength];
-                    for (int j = 0; j < genomeLength; j++) g[j] = rnd.nextInt(4);
-                    pop.add(g);
-                }
+                for (PackedGenome g : pop) g.randomize(rnd);
+                java.util.Arrays.fill(parentOf, -1);
                 stagnation = 0;
                 gen++;
                 continue;
@@ -165,159 +149,95 @@ public class PureGA {
                 if (improveGen >= improveGenerationsBudget) break;
             }
             // Crossover + mutation to refill
-            while (next.size() < populationSize) {
-                int parentPool = Math.max(eliteCount, Math.min(populationSize, 20));
-                int[] p1 = candidates.get(rnd.nextInt(parentPool)).genome;
-                int[] p2 = candidates.get(rnd.nextInt(parentPool)).genome;
-                int[] child = new int[genomeLength];
+            for (int n = eliteCount; n < populationSize; n++) {
+                int c1 = pickParent(keys, parentPool, rnd);
+                PackedGenome p1 = pop[c1];
+                PackedGenome p2 = pop[pickParent(keys, parentPool, rnd)];
+                PackedGenome child = spare[n];
                 int cut = 1 + rnd.nextInt(genomeLength-1);
-                System.arraycopy(p1, 0, child, 0, cut);
-                System.arraycopy(p2, cut, child, cut, genomeLength-cut);
-                // mutation
-                for (int j=0;j<genomeLength;j++) {
-                    if (rnd.nextDouble() < mutationRate) child[j] = rnd.nextInt(4);
+                int dirty;
+                if (options.gaTwoPointCrossover) {
+                    int cut2 = 1 + rnd.nextInt(genomeLength-1);
+                    dirty = Math.min(cut, cut2);
+                    PackedGenome.twoPoint(p1, p2, dirty, Math.max(cut, cut2), child);
+                } else {
+                    dirty = cut;
+                    PackedGenome.onePoint(p1, p2, cut, child);
                 }
-                next.add(child);
-            }
-            pop = next;
+                // mutation
+                dirty = Math.min(dirty, child.mutate(mutationRate, rnd));
+                parentOf[n] = c1;
+                firstDirty[n] = dirty;
+            }
+            PackedGenome[] swap = pop;
+            pop = spare;
+            spare = swap;
+            GenomeWalker.Track[] swapTracks = tracks;
+            tracks = spareTracks;
+            spareTracks = swapTracks;
             gen++;
         }
         long t1 = System.nanoTime();
-        // Render best path (paint finished route only once)
-        resetState();
-        if (bestReached && bestPath != null) {
-            for (int[] cell : bestPath) {
-                if (cancelled) break;
-                int bx = cell[0], by = cell[1];
-                if (data.inArea(bx, by)) data.result[bx][by] = true;
-            }
-            frame.render(data);
-        }
         // Final report: show only the best route metrics
         Integer finalCost = (bestReached && bestPath != null ? computeRouteCost(bestPath) : null);
-        Integer finalSteps = (bestReached && bestPath != null ? bestPath.size() : null);
+        Integer finalSteps = (bestReached && bestPath != null ? bestPath.length : null);
         Integer finalVisited = (bestReached && bestPath != null ? countUnique(bestPath) : null);
-        frame.updateMetrics(finalCost, finalSteps, finalVisited, (t1-t0)/1_000_000L, algoName);
-        if (pos != null) pos.setData(-1, -1, false);
+        return new SolveResult(algoName, finalCost, finalSteps, finalVisited, t1 - t0, bestReached ? bestPath : null, metrics);
     }
 
-    // Helper: clear transient exploration marks used for travelling animation
-    private void clearTransientMarks() {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.path[i][j] = false;
-            }
+    // GA score of the walker's last walk (routeCost + penalties)
+    private int fitness(GenomeWalker walker) {
+        int f = walker.routeCost();
+        f += walker.invalidMoves() * 50; // heavier penalty for invalid move
+        f += walker.revisits() * 2;      // small loop penalty
+        if (!walker.reached()) {
+            // Random-only: penalize based on Manhattan distance to goal.
+            int cur = walker.end();
+            int d = Math.abs(data.cellX(cur) - data.getExitX()) + Math.abs(data.cellY(cur) - data.getExitY());
+            f += d * 200;
         }
-        if (frame != null) frame.render(data);
+        // Shorter solutions slightly preferred among ties
+        return f + walker.length();
     }
 
-    // Animate the current best GA candidate path as travelling steps
-    private void renderTravellingPath(java.util.List<int[]> path) {
-        if (pos == null) {
-            // Fall back to static painting if Position animator is not wired.
-            for (int[] cell : path) {
-                if (cancelled) break;
-                int x = cell[0], y = cell[1];
-                if (data != null && data.inArea(x, y)) data.path[x][y] = true;
-            }
-            if (frame != null) frame.render(data);
-            return;
-        }
-        for (int[] cell : path) {
-            if (cancelled) break;
-            int x = cell[0], y = cell[1];
-            pos.setData(x, y, true); // uses pause based on UI speed
+    // Parent slot by the configured strategy, from keys ranked this generation
+    private int pickParent(long[] keys, int parentPool, java.util.Random rnd) {
+        if (options.gaSelection == SolveOptions.SelectionStrategy.TOURNAMENT) {
+            return Selection.tournament(keys, keys.length, Math.max(1, options.gaTournamentSize), rnd);
         }
-        // After travelling, keep the last travelled cells marked as path
-        if (frame != null) frame.render(data);
+        return Selection.index(keys[rnd.nextInt(parentPool)]);
     }
 
-
-    // Estimate shortest steps from entrance to exit using unweighted BFS (ignores weights)
+    // Shortest steps from entrance to exit ignoring weights, from the maze's cached BFS field
     private int estimateShortestSteps() {
-        int n = data.N(), m = data.M();
-        boolean[][] seen = new boolean[n][m];
-        java.util.ArrayDeque<Position> q = new java.util.ArrayDeque<>();
-        Position s = new Position(data.getEntranceX(), data.getEntranceY(), null);
-        q.add(s);
-        seen[s.x][s.y] = true;
-        while (!q.isEmpty()) {
-            Position cur = q.poll();
-            if (cur.x == data.getExitX() && cur.y == data.getExitY()) {
-                // count steps via backtracking
-                int steps = 0;
-                Position p = cur;
-                while (p != null) { steps++; p = p.prev; }
-                return steps;
-            }
-            for (int[] d : directions) {
-                int nx = cur.x + d[0], ny = cur.y + d[1];
-                if (data.inArea(nx, ny) && !seen[nx][ny] && data.getMazeChar(nx,ny)==MazeData.ROAD) {
-                    seen[nx][ny] = true;
-                    q.add(new Position(nx, ny, cur));
-                }
-            }
-        }
+        MazeFields fields = MazeFields.of(data);
+        // steps counted as cells on the route, start included
+        if (fields.isSolvable()) return fields.stepsToGoal()[data.getEntrance()] + 1;
         // fallback to Manhattan distance + padding if unreachable by BFS
         int md = Math.abs(data.getEntranceX()-data.getExitX()) + Math.abs(data.getEntranceY()-data.getExitY());
         return md + 20;
     }
 
 
-    private int computeRouteCost(java.util.List<int[]> path) {
-        if (path == null || path.size() < 2) return 0;
+    private int computeRouteCost(int[] path) {
+        if (path == null || path.length < 2) return 0;
         int cost = 0;
-        for (int i = 1; i < path.size(); i++) {
-            int x = path.get(i)[0];
-            int y = path.get(i)[1];
-            if (!data.inArea(x, y)) continue;
-            int w = (data.weight != null ? data.weight[x][y] : 1);
-            cost += (w > 0 ? w : 1);
+        for (int i = 1; i < path.length; i++) {
+            cost += data.stepCost(path[i]);
         }
         return cost;
     }
 
-    private int countUnique(java.util.List<int[]> path) {
+    private int countUnique(int[] path) {
         if (path == null) return 0;
-        boolean[][] seen = new boolean[data.N()][data.M()];
+        boolean[] seen = new boolean[data.cellCount()];
         int c = 0;
-        for (int[] cell : path) {
-            int x = cell[0], y = cell[1];
-            if (!data.inArea(x, y)) continue;
-            if (!seen[x][y]) {
-                seen[x][y] = true;
+        for (int cell : path) {
+            if (!seen[cell]) {
+                seen[cell] = true;
                 c++;
             }
         }
         return c;
     }
-
-
-    private void resetState() {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.visited[i][j] = false;
-                data.path[i][j] = false;
-                data.result[i][j] = false;
-            }
-        }
-        frame.setTitle("Maze Solver - " + getMazeLabel());
-        frame.render(data);
-    }
-
-    // Helper: returns a friendly label for the currently loaded maze (file name or size)
-    private String getMazeLabel() {
-        // Prefer original source file name via toString if MazeData exposes it
-        try {
-            if (data != null) {
-                String s = data.toString();
-                if (s != null && !s.trim().isEmpty()) return s;
-            }
-        } catch (Throwable ignored) {}
-        // Fallback to dimensions
-        if (data != null) {
-            return data.N() + "x" + data.M();
-        }
-        return "(no maze)";
-    }
 }
@@ -1,65 +1,168 @@
 package th.ac.kmutt.cpe.algorithm.maze.method;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionService;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+import javax.swing.SwingUtilities;
 import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
 import th.ac.kmutt.cpe.algorithm.maze.ui.MazeFrame;
+import th.ac.kmutt.cpe.algorithm.maze.ui.RenderListener;
 
 public class Run {
     MazeData data;
     MazeFrame frame;
-    BFS bfs = new BFS();
-    AStar aStar = new AStar();
-    Dijkstra dijkstra = new Dijkstra();
-    GeneticAlgorithm ga = new GeneticAlgorithm();
-    PureGA pga = new PureGA();
-    Position pos;
+    SolveOptions options = new SolveOptions();
+    // Token of the run in progress, cancelled by cancel()
+    private volatile CancellationToken current;
+
+    // Headless runner: no rendering, no animation delay
+    public Run(MazeData data) {
+        this(data, null);
+    }
 
     public Run(MazeData data, MazeFrame frame) {
         this.data = data;
         this.frame = frame;
-        this.pos = new Position(0, 0, null);
-        // inject shared instances
-        bfs.data = data; bfs.frame = frame; bfs.pos = pos;
-        aStar.data = data; aStar.frame = frame; aStar.pos = pos;
-        dijkstra.data = data; dijkstra.frame = frame; dijkstra.pos = pos;
-        ga.data = data; ga.frame = frame; ga.pos = pos;
-        pga.data = data; pga.frame = frame; pga.pos = pos;
-        pos.data = data; pos.frame = frame;
     }
 
     public void setData(MazeData newData) {
         this.data = newData;
-        bfs.data = newData;
-        aStar.data = newData;
-        dijkstra.data = newData;
-        ga.data = newData;
-        pga.data = newData;
-        pos.data = newData;
     }
 
-    public void runWithAlgorithm(String algo) {
-        for (int i = 0; i < data.N(); i++) {
-            for (int j = 0; j < data.M(); j++) {
-                data.visited[i][j] = false;
-                data.path[i][j] = false;
-                data.result[i][j] = false;
+    public void setOptions(SolveOptions options) {
+        this.options = options;
+    }
+
+    // Stops the run in progress, if any: its engines return what they have so
+    // far within one loop iteration, and the frame is left as the caller resets it
+    public void cancel() {
+        CancellationToken token = current;
+        if (token != null) token.cancel();
+    }
+
+    public SolveResult runWithAlgorithm(String algo) {
+        Solver solver = SolverRegistry.create(algo);
+        SolveOptions opts = optionsForRun();
+        if (frame == null) {
+            return SolveMetrics.measure(solver, data, opts, null);
+        }
+        data.clearMarks();
+        frame.setReplay(null);
+        RenderListener listener = new RenderListener(frame, data);
+        SolveResult result = SolveMetrics.measure(solver, data, opts, listener);
+        // A time budget running out still shows its partial result; a reset does not
+        if (opts.cancellation.isCancelled()) listener.abandon(); else listener.finish(result);
+        return result;
+    }
+
+    // Race mode: every algorithm solves the same read-only grid at once on a pool,
+    // each with its own engine instance and scratch state. Results are reported
+    // as they finish, an engine that throws as an unsolved row carrying the
+    // error; the cheapest solved route is painted at the end. Frame updates go
+    // through the event thread.
+    public List<SolveResult> race(List<String> algos) {
+        SolveOptions opts = optionsForRun();
+        MazeData maze = data;
+        if (frame != null) {
+            maze.clearMarks();
+            frame.setReplay(null);
+            frame.clearRaceResults();
+            SwingUtilities.invokeLater(() -> frame.render(maze));
+        }
+        int threads = Math.max(1, Math.min(algos.size(), Runtime.getRuntime().availableProcessors()));
+        AtomicInteger ids = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(threads, r -> {
+            Thread t = new Thread(r, "maze-race-" + ids.incrementAndGet());
+            t.setDaemon(true);
+            return t;
+        });
+        CompletionService<SolveResult> done = new ExecutorCompletionService<>(pool);
+        Map<Future<SolveResult>, String> names = new HashMap<>();
+        List<SolveResult> results = new ArrayList<>();
+        long t0 = System.nanoTime();
+        try {
+            for (String algo : algos) {
+                Solver solver = SolverRegistry.create(algo);
+                names.put(done.submit(() -> SolveMetrics.measure(solver, maze, opts, null)), algo);
+            }
+            for (int i = 0; i < algos.size(); i++) {
+                Future<SolveResult> f = done.take();
+                SolveResult r;
+                try {
+                    r = f.get();
+                } catch (ExecutionException e) {
+                    // A failed engine still gets its row, unsolved and named with the error
+                    r = new SolveResult(names.get(f) + " (failed: " + e.getCause() + ")", null, null, null, 0);
+                }
+                results.add(r);
+                if (frame != null) frame.addRaceResult(r.algorithm, r.cost, r.steps, r.visited, r.timeMs());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+        }
+        long wall = System.nanoTime() - t0;
+
+        if (frame != null && !opts.cancellation.isCancelled()) {
+            SolveResult best = null;
+            for (SolveResult r : results) {
+                if (r.path == null) continue;
+                int cost = routeCost(maze, r.path);
+                if (best == null || cost < routeCost(maze, best.path)) best = r;
+            }
+            if (best != null) {
+                for (int cell : best.path) maze.setResult(cell, true);
             }
+            SolveResult winner = best;
+            Integer cost = best != null ? routeCost(maze, best.path) : null;
+            SwingUtilities.invokeLater(() -> {
+                frame.render(maze);
+                frame.updateMetrics(cost, winner != null ? winner.path.length : null, null, wall / 1_000_000L,
+                    "Race" + (winner != null ? " (best: " + winner.algorithm + ")" : ""));
+                frame.updateSolveMetrics(winner != null ? winner.metrics : null);
+            });
         }
+        return results;
+    }
+
+    private static int routeCost(MazeData maze, int[] path) {
+        int cost = 0;
+        for (int i = 1; i < path.length; i++) cost += maze.stepCost(path[i]);
+        return cost;
+    }
 
-        switch (algo) {
-            case "BFS":
-                bfs.runBFS();
-                return;
-            case "A*":
-                aStar.runAStar();
-                return;
-            case "Genetic":
-                ga.runGenetic();
-                return;
-            case "PureGA":
-                pga.runPureGenetic();
-                return;
-            case "Dijkstra":
-            default:
-                dijkstra.runDijkstra();
+    // Headless runs use the options as given, with their token; frame runs get
+    // fresh options and a fresh token so cancel() stops only this run
+    private SolveOptions optionsForRun() {
+        SolveOptions o = options;
+        if (frame != null) {
+            o = optionsFromFrame();
+            o.cancellation = new CancellationToken();
         }
+        current = o.cancellation != CancellationToken.NONE ? o.cancellation : null;
+        return o;
+    }
+
+    private SolveOptions optionsFromFrame() {
+        SolveOptions o = new SolveOptions();
+        o.gaPopulation = frame.getGaPopulation();
+        o.gaGenerations = frame.getGaGenerations();
+        o.gaMutationRate = frame.getGaMutationRate();
+        o.gaGoalBias = frame.getGaGoalBias();
+        o.gaElitismCount = frame.getGaElitismCount();
+        o.gaSelection = frame.isGaTournamentSelection()
+            ? SolveOptions.SelectionStrategy.TOURNAMENT : SolveOptions.SelectionStrategy.TRUNCATION;
+        o.gaIslands = frame.getGaIslands();
+        o.gaMigrationInterval = frame.getGaMigrationInterval();
+        o.timeBudgetMs = frame.getTimeBudgetMs();
+        return o;
     }
 }
@@ -0,0 +1,88 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.Arrays;
+import java.util.random.RandomGenerator;
+
+// GA ranking over one primitive key per genome instead of a sorted list of
+// candidate objects. A key packs, from the top bit down: a not-reached flag,
+// the cost and the population slot, so plain long comparison orders genomes
+// goal-reaching first, then cheapest, then by slot (the same order a stable
+// sort on (reached, cost) gives). Costs saturate at 2^38 - 1 and slots must
+// stay below 2^24.
+public final class Selection {
+    private static final int INDEX_BITS = 24;
+    private static final long INDEX_MASK = (1L << INDEX_BITS) - 1;
+    private static final long MAX_COST = (1L << 38) - 1;
+    private static final long NOT_REACHED = 1L << 62;
+
+    private Selection() {
+    }
+
+    public static long key(boolean reached, long cost, int index) {
+        long c = Math.max(0, Math.min(cost, MAX_COST));
+        return (reached ? 0 : NOT_REACHED) | (c << INDEX_BITS) | index;
+    }
+
+    public static int index(long key) {
+        return (int) (key & INDEX_MASK);
+    }
+
+    // Cost as packed, saturated at 2^38 - 1
+    public static long cost(long key) {
+        return (key & ~NOT_REACHED) >>> INDEX_BITS;
+    }
+
+    public static boolean reached(long key) {
+        return (key & NOT_REACHED) == 0;
+    }
+
+    // Moves the k smallest of keys[0, n) into keys[0, k), in order. Quickselect
+    // partitions around the k-th key in expected O(n); only the k winners are
+    // sorted.
+    public static void selectTop(long[] keys, int n, int k) {
+        if (k >= n) {
+            Arrays.sort(keys, 0, n);
+            return;
+        }
+        if (k <= 0) return;
+        int target = k - 1;
+        int lo = 0, hi = n - 1;
+        while (hi > lo) {
+            long pivot = medianOfThree(keys[lo], keys[(lo + hi) >>> 1], keys[hi]);
+            int i = lo, j = hi;
+            while (i <= j) {
+                while (keys[i] < pivot) i++;
+                while (keys[j] > pivot) j--;
+                if (i <= j) {
+                    long t = keys[i];
+                    keys[i++] = keys[j];
+                    keys[j--] = t;
+                }
+            }
+            // [lo, j] <= pivot <= [i, hi]; anything between equals the pivot
+            if (target <= j) hi = j;
+            else if (target >= i) lo = i;
+            else break;
+        }
+        Arrays.sort(keys, 0, k);
+    }
+
+    // Population slot of the best of size keys drawn uniformly from keys[0, n)
+    public static int tournament(long[] keys, int n, int size, RandomGenerator rnd) {
+        long best = keys[rnd.nextInt(n)];
+        for (int t = 1; t < size; t++) {
+            long k = keys[rnd.nextInt(n)];
+            if (k < best) best = k;
+        }
+        return index(best);
+    }
+
+    private static long medianOfThree(long a, long b, long c) {
+        if (a < b) {
+            if (b < c) return b;
+            return a < c ? c : a;
+        }
+        if (a < c) return a;
+        return b < c ? c : b;
+    }
+}
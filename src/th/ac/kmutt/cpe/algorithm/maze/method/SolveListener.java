@@ -0,0 +1,20 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+// Optional progress callbacks from a running solver. They are invoked on the
+// solver's thread, so implementations should return quickly.
+public interface SolveListener {
+    SolveListener NONE = new SolveListener() { };
+
+    // A cell was expanded / settled
+    default void onVisit(int cell) { }
+
+    // The current best candidate route changed (GA engines)
+    default void onCandidate(int[] path) { }
+
+    // Intermediate metrics while the run is still going
+    default void onProgress(SolveResult partial) { }
+
+    // A cheaper goal-reaching route was found (anytime engines). Its cost is at
+    // most bound times the optimum; 1 means it is optimal.
+    default void onImprovement(int[] path, int cost, double bound) { }
+}
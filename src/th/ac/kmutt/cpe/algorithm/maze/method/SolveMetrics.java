@@ -0,0 +1,259 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Locale;
+import jdk.jfr.Category;
+import jdk.jfr.DataAmount;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.Timespan;
+import th.ac.kmutt.cpe.algorithm.maze.structure.BucketQueue;
+import th.ac.kmutt.cpe.algorithm.maze.structure.IndexedMinHeap;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// Counters of one solve: the in-process form of what Batch logs and what JFR
+// records, so the GUI, the batch runner and a profiler see the same numbers.
+// Search engines fill the frontier counters (a GA counts evaluated genomes as
+// expanded and adds one Generation per ranked generation). wallNanos, cpuNanos
+// and allocatedBytes are taken around the whole solve by measure(), on the
+// calling thread only: GA evaluations on pool workers are not included, and
+// they stay -1 where the JVM cannot measure them.
+public class SolveMetrics {
+    private static final ThreadMXBean THREADS = ManagementFactory.getThreadMXBean();
+
+    public long expanded;
+    public long pushes;
+    public long decreaseKeys;
+    public long pops;
+    // Entries popped after a cheaper copy was already settled; the indexed
+    // queues update in place, so only lazy frontiers can have any
+    public long stalePops;
+    public long peakFrontier;
+    public long wallNanos;
+    public long cpuNanos = -1;
+    public long allocatedBytes = -1;
+    // Stopped by its CancellationToken; the result is what the engine had so far.
+    // Anytime engines set it only for the caller's cancel, not their time budget.
+    public boolean cancelled;
+    // Anytime engines: the route costs at most bound times the optimum (1 when
+    // optimal); NaN when the engine does not know
+    public double bound = Double.NaN;
+    private final List<Generation> generations = new ArrayList<>();
+
+    // One ranked GA generation. bestCost and meanCost are ranking scores as the
+    // selection saw them (lower is better), reached counts goal-reaching genomes
+    public static final class Generation {
+        public final int island, generation, evaluated, reached, stagnation;
+        public final long bestCost, nanos;
+        public final double meanCost;
+
+        Generation(int island, int generation, int evaluated, long bestCost, double meanCost,
+                   int reached, int stagnation, long nanos) {
+            this.island = island;
+            this.generation = generation;
+            this.evaluated = evaluated;
+            this.bestCost = bestCost;
+            this.meanCost = meanCost;
+            this.reached = reached;
+            this.stagnation = stagnation;
+            this.nanos = nanos;
+        }
+    }
+
+    @Name("mazerunner.Solve")
+    @Label("Maze Solve")
+    @Category("Maze Runner")
+    static final class SolveEvent extends Event {
+        @Label("Algorithm") String algorithm;
+        @Label("Cells") int cells;
+        @Label("Solved") boolean solved;
+        @Label("Cost") int cost;
+        @Label("Steps") int steps;
+        @Label("Cancelled") boolean cancelled;
+        @Label("Suboptimality Bound") double bound;
+        @Label("Expanded") long expanded;
+        @Label("Pushes") long pushes;
+        @Label("Decrease Keys") long decreaseKeys;
+        @Label("Pops") long pops;
+        @Label("Stale Pops") long stalePops;
+        @Label("Peak Frontier") long peakFrontier;
+        @Label("CPU Time") @Timespan long cpuNanos;
+        @Label("Allocated") @DataAmount long allocatedBytes;
+    }
+
+    @Name("mazerunner.Generation")
+    @Label("GA Generation")
+    @Category("Maze Runner")
+    static final class GenerationEvent extends Event {
+        @Label("Algorithm") String algorithm;
+        @Label("Island") int island;
+        @Label("Generation") int generation;
+        @Label("Evaluated") int evaluated;
+        @Label("Best Cost") long bestCost;
+        @Label("Mean Cost") double meanCost;
+        @Label("Reached") int reached;
+        @Label("Stagnation") int stagnation;
+        @Label("Generation Time") @Timespan long nanos;
+    }
+
+    // Runs the solver with wall, CPU and allocation measured around it and a
+    // JFR Solve event spanning it
+    public static SolveResult measure(Solver solver, MazeView maze, SolveOptions options, SolveListener listener) {
+        SolveEvent event = new SolveEvent();
+        event.begin();
+        long cpu0 = cpuNanos(), alloc0 = allocatedBytes();
+        long t0 = System.nanoTime();
+        SolveResult r = solver.solve(maze, options, listener);
+        long t1 = System.nanoTime();
+        long cpu1 = cpuNanos(), alloc1 = allocatedBytes();
+        event.end();
+
+        SolveMetrics m = r.metrics;
+        m.wallNanos = t1 - t0;
+        m.cpuNanos = cpu0 >= 0 && cpu1 >= 0 ? cpu1 - cpu0 : -1;
+        m.allocatedBytes = alloc0 >= 0 && alloc1 >= 0 ? alloc1 - alloc0 : -1;
+        if (event.shouldCommit()) {
+            event.algorithm = r.algorithm;
+            event.cells = maze.cellCount();
+            event.solved = r.isSolved();
+            event.cost = r.cost != null ? r.cost : -1;
+            event.steps = r.steps != null ? r.steps : -1;
+            event.cancelled = m.cancelled;
+            event.bound = m.bound;
+            event.expanded = m.expanded;
+            event.pushes = m.pushes;
+            event.decreaseKeys = m.decreaseKeys;
+            event.pops = m.pops;
+            event.stalePops = m.stalePops;
+            event.peakFrontier = m.peakFrontier;
+            event.cpuNanos = m.cpuNanos;
+            event.allocatedBytes = m.allocatedBytes;
+            event.commit();
+        }
+        return r;
+    }
+
+    // Adds a heap's operation counts; its peak size becomes the frontier peak
+    public void frontier(IndexedMinHeap heap) {
+        pushes += heap.pushes();
+        decreaseKeys += heap.decreaseKeys();
+        pops += heap.pops();
+        peakFrontier = Math.max(peakFrontier, heap.peakSize());
+    }
+
+    public void frontier(BucketQueue queue) {
+        pushes += queue.pushes();
+        decreaseKeys += queue.decreaseKeys();
+        pops += queue.pops();
+        peakFrontier = Math.max(peakFrontier, queue.peakSize());
+    }
+
+    // Records a generation and emits its JFR event. Islands call this from pool
+    // workers, so it is synchronized; once per generation is cheap enough.
+    public synchronized void addGeneration(String algorithm, int island, int generation, int evaluated,
+                                           long bestCost, double meanCost, int reached, int stagnation, long nanos) {
+        expanded += evaluated;
+        generations.add(new Generation(island, generation, evaluated, bestCost, meanCost, reached, stagnation, nanos));
+        GenerationEvent event = new GenerationEvent();
+        if (event.shouldCommit()) {
+            event.algorithm = algorithm;
+            event.island = island;
+            event.generation = generation;
+            event.evaluated = evaluated;
+            event.bestCost = bestCost;
+            event.meanCost = meanCost;
+            event.reached = reached;
+            event.stagnation = stagnation;
+            event.nanos = nanos;
+            event.commit();
+        }
+    }
+
+    public synchronized List<Generation> generations() {
+        return Collections.unmodifiableList(new ArrayList<>(generations));
+    }
+
+    // Copy of another solve's counters, for engines that delegate
+    void copyFrom(SolveMetrics o) {
+        expanded = o.expanded;
+        pushes = o.pushes;
+        decreaseKeys = o.decreaseKeys;
+        pops = o.pops;
+        stalePops = o.stalePops;
+        peakFrontier = o.peakFrontier;
+        cancelled = o.cancelled;
+        bound = o.bound;
+        synchronized (o) {
+            generations.addAll(o.generations);
+        }
+    }
+
+    public static String csvHeader() {
+        return "expanded,pushes,decrease_keys,pops,stale_pops,peak_frontier,cpu_ms,alloc_bytes,cancelled,bound";
+    }
+
+    public String toCsv() {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%d,%d,%s,%s,%s,%s", expanded, pushes, decreaseKeys, pops,
+            stalePops, peakFrontier, cpuNanos >= 0 ? String.format(Locale.ROOT, "%.3f", cpuNanos / 1e6) : "",
+            allocatedBytes >= 0 ? Long.toString(allocatedBytes) : "", cancelled,
+            Double.isNaN(bound) ? "" : String.format(Locale.ROOT, "%.4f", bound));
+    }
+
+    public static String generationCsvHeader() {
+        return "island,generation,evaluated,best_cost,mean_cost,reached,stagnation,ms";
+    }
+
+    public static String toCsv(Generation g) {
+        return String.format(Locale.ROOT, "%d,%d,%d,%d,%.2f,%d,%d,%.3f", g.island, g.generation, g.evaluated,
+            g.bestCost, g.meanCost, g.reached, g.stagnation, g.nanos / 1e6);
+    }
+
+    // JSON object members (no braces), generations included when there are any
+    public String toJson() {
+        StringBuilder sb = new StringBuilder();
+        sb.append(String.format(Locale.ROOT,
+            "\"expanded\": %d, \"pushes\": %d, \"decrease_keys\": %d, \"pops\": %d, \"stale_pops\": %d, "
+                + "\"peak_frontier\": %d, \"cpu_ms\": %s, \"alloc_bytes\": %s, \"cancelled\": %s, \"bound\": %s",
+            expanded, pushes, decreaseKeys, pops, stalePops, peakFrontier,
+            cpuNanos >= 0 ? String.format(Locale.ROOT, "%.3f", cpuNanos / 1e6) : "null",
+            allocatedBytes >= 0 ? Long.toString(allocatedBytes) : "null", cancelled,
+            Double.isNaN(bound) ? "null" : String.format(Locale.ROOT, "%.4f", bound)));
+        List<Generation> gens = generations();
+        if (!gens.isEmpty()) {
+            sb.append(", \"generations\": [");
+            for (int i = 0; i < gens.size(); i++) {
+                Generation g = gens.get(i);
+                if (i > 0) sb.append(", ");
+                sb.append(String.format(Locale.ROOT,
+                    "{\"island\": %d, \"generation\": %d, \"evaluated\": %d, \"best_cost\": %d, \"mean_cost\": %.2f, "
+                        + "\"reached\": %d, \"stagnation\": %d, \"ms\": %.3f}",
+                    g.island, g.generation, g.evaluated, g.bestCost, g.meanCost, g.reached, g.stagnation, g.nanos / 1e6));
+            }
+            sb.append(']');
+        }
+        return sb.toString();
+    }
+
+    private static long cpuNanos() {
+        try {
+            return THREADS.isCurrentThreadCpuTimeSupported() ? THREADS.getCurrentThreadCpuTime() : -1;
+        } catch (UnsupportedOperationException e) {
+            return -1;
+        }
+    }
+
+    private static long allocatedBytes() {
+        if (THREADS instanceof com.sun.management.ThreadMXBean) {
+            com.sun.management.ThreadMXBean t = (com.sun.management.ThreadMXBean) THREADS;
+            if (t.isThreadAllocatedMemorySupported() && t.isThreadAllocatedMemoryEnabled()) {
+                return t.getThreadAllocatedBytes(Thread.currentThread().getId());
+            }
+        }
+        return -1;
+    }
+}
@@ -0,0 +1,49 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+// Tunables the solvers read at the start of a run. Defaults match the GA
+// spinners in MazeFrame so headless runs behave like the GUI out of the box.
+public class SolveOptions {
+    public int gaPopulation = 140;
+    public int gaGenerations = 300;
+    public double gaMutationRate = 0.05;
+    public double gaGoalBias = 0.80;
+    public int gaElitismCount = 14;
+    // Children take a middle segment from the second parent instead of a tail
+    public boolean gaTwoPointCrossover = false;
+    // How parents are picked; elites are always the gaElitismCount best
+    public SelectionStrategy gaSelection = SelectionStrategy.TRUNCATION;
+    public int gaTournamentSize = 3;
+    // Same seed, same run: results do not depend on gaThreads
+    public long gaSeed = 42;
+    // Fitness evaluation workers; 0 uses the common ForkJoin pool
+    public int gaThreads = 0;
+    // Island model: independent populations of gaPopulation genomes each,
+    // exchanging gaMigrants elites every gaMigrationInterval generations.
+    // 1 runs the classic single population.
+    public int gaIslands = 1;
+    public int gaMigrationInterval = 20;
+    public int gaMigrants = 2;
+    public MigrationTopology gaTopology = MigrationTopology.RING;
+    // Stops every engine early; the result holds what it had found so far
+    public CancellationToken cancellation = CancellationToken.NONE;
+    // Wall-clock budget of one solve in ms, counted from its start; 0 for none.
+    // Anytime engines (ARA*, Anytime GA) spend all of it improving their route.
+    public long timeBudgetMs = 0;
+    // ARA*: first heuristic inflation, and how much it drops per improved route
+    public double araInitialWeight = 3.0;
+    public double araWeightStep = 0.5;
+
+    public enum SelectionStrategy {
+        // Parents uniformly from the best 20 (or the elites, if more)
+        TRUNCATION,
+        // Each parent is the best of gaTournamentSize random genomes
+        TOURNAMENT
+    }
+
+    public enum MigrationTopology {
+        // Island k sends to island k + 1
+        RING,
+        // Every island sends to every other island
+        ALL
+    }
+}
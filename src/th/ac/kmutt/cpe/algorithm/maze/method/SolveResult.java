@@ -0,0 +1,55 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+// Outcome of one solver run. cost/steps/visited are null when the solver
+// has nothing meaningful to report (e.g. no route found, BFS has no cost).
+// path holds the route's cell ids from entrance to exit, or null.
+// metrics is never null; engines that keep no counters report visited as expanded.
+public class SolveResult {
+    public final String algorithm;
+    public final Integer cost;
+    public final Integer steps;
+    public final Integer visited;
+    public final long wallNanos;
+    public final int[] path;
+    public final SolveMetrics metrics;
+
+    public SolveResult(String algorithm, Integer cost, Integer steps, Integer visited, long wallNanos) {
+        this(algorithm, cost, steps, visited, wallNanos, null);
+    }
+
+    public SolveResult(String algorithm, Integer cost, Integer steps, Integer visited, long wallNanos, int[] path) {
+        this(algorithm, cost, steps, visited, wallNanos, path, null);
+    }
+
+    public SolveResult(String algorithm, Integer cost, Integer steps, Integer visited, long wallNanos, int[] path,
+                       SolveMetrics metrics) {
+        if (metrics == null) {
+            metrics = new SolveMetrics();
+            if (visited != null) metrics.expanded = visited;
+        }
+        this.algorithm = algorithm;
+        this.cost = cost;
+        this.steps = steps;
+        this.visited = visited;
+        this.wallNanos = wallNanos;
+        this.path = path;
+        this.metrics = metrics;
+    }
+
+    public boolean isSolved() {
+        return steps != null;
+    }
+
+    public long timeMs() {
+        return wallNanos / 1_000_000L;
+    }
+
+    // Route from a parent array (-1 terminated), entrance first
+    static int[] tracePath(int[] parent, int end) {
+        int len = 0;
+        for (int cur = end; cur >= 0; cur = parent[cur]) len++;
+        int[] path = new int[len];
+        for (int cur = end, i = len - 1; cur >= 0; cur = parent[cur]) path[i--] = cur;
+        return path;
+    }
+}
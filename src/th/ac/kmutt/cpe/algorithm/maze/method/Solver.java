@@ -0,0 +1,12 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeView;
+
+// A maze solving engine. Implementations keep all per-solve scratch state to
+// themselves and only read the maze, so independent solves never interfere.
+public interface Solver {
+    String name();
+
+    // listener may be null when nobody watches the run
+    SolveResult solve(MazeView maze, SolveOptions options, SolveListener listener);
+}
@@ -0,0 +1,45 @@
+package th.ac.kmutt.cpe.algorithm.maze.method;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Supplier;
+
+// Name -> engine lookup used by Run, the batch runner and the UI's algorithm list.
+// Each lookup creates a fresh engine, so concurrent solves never share state.
+public class SolverRegistry {
+    public static final String DEFAULT = "Dijkstra";
+
+    private static final Map<String, Supplier<Solver>> SOLVERS = new LinkedHashMap<>();
+
+    static {
+        register("PureGA", PureGA::new);
+        register("Genetic", GeneticAlgorithm::new);
+        register("Anytime GA", () -> new GeneticAlgorithm(true));
+        register("Dijkstra", Dijkstra::new);
+        register("Dial", DialDijkstra::new);
+        register("A*", AStar::new);
+        register("ARA*", AnytimeAStar::new);
+        register("Bi-Dijkstra", () -> new Bidirectional(false));
+        register("Bi-A*", () -> new Bidirectional(true));
+        register("BFS", BFS::new);
+        register("JPS", JumpPointSearch::new);
+        register("Auto", AutoSolver::new);
+    }
+
+    public static synchronized void register(String name, Supplier<Solver> factory) {
+        SOLVERS.put(name, factory);
+    }
+
+    // Unknown names fall back to Dijkstra, like the old switch default
+    public static synchronized Solver create(String name) {
+        Supplier<Solver> factory = SOLVERS.get(name);
+        if (factory == null) factory = SOLVERS.get(DEFAULT);
+        return factory.get();
+    }
+
+    public static synchronized List<String> names() {
+        return new ArrayList<>(SOLVERS.keySet());
+    }
+}
@@ -0,0 +1,112 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.util.Arrays;
+
+// Dial's bucket queue for monotone integer priorities. With edge costs in
+// [1, maxCost], every queued key lies in [min, min + maxCost], so maxCost + 1
+// circular buckets suffice. Buckets are intrusive doubly linked lists over cell
+// ids, which gives O(1) push, decrease-key and amortised O(1) pop.
+// Operation counts and the peak size are kept for SolveMetrics.
+public class BucketQueue {
+	private static final int ABSENT = -2;
+
+	private final int[] head;     // bucket -> first cell, -1 when empty
+	private final int[] next;     // cell -> next cell in its bucket, -1 at the end
+	private final int[] prev;     // cell -> previous cell, -1 at the head, ABSENT when not queued
+	private final int[] key;      // cell -> priority
+	private final int buckets;
+	// Last popped priority (every queued one is at or above it), or before the
+	// first pop the lowest one pushed so far; -1 while nothing was pushed
+	private int cursor = -1;
+	private int size;
+	private int peakSize;
+	private long pushes, decreaseKeys, pops;
+
+	public BucketQueue(int capacity, int maxCost) {
+		buckets = maxCost + 1;
+		head = new int[buckets];
+		next = new int[capacity];
+		prev = new int[capacity];
+		key = new int[capacity];
+		Arrays.fill(head, -1);
+		Arrays.fill(prev, ABSENT);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int cell) {
+		return prev[cell] != ABSENT;
+	}
+
+	public int keyOf(int cell) {
+		return key[cell];
+	}
+
+	public int peakSize() {
+		return peakSize;
+	}
+
+	public long pushes() {
+		return pushes;
+	}
+
+	public long decreaseKeys() {
+		return decreaseKeys;
+	}
+
+	public long pops() {
+		return pops;
+	}
+
+	// Insert, or lower the priority of a queued cell. Priorities must not be
+	// below the last popped one nor more than maxCost above it. The cursor only
+	// moves on pop: pushing into a drained queue must not move it up, or a
+	// smaller key pushed next would sit behind it until the scan wrapped.
+	public boolean pushOrDecrease(int cell, int priority) {
+		if (prev[cell] != ABSENT) {
+			if (priority >= key[cell]) return false;
+			unlink(cell);
+			decreaseKeys++;
+		} else {
+			size++;
+			pushes++;
+			if (size > peakSize) peakSize = size;
+		}
+		if (cursor < 0 || priority < cursor) cursor = priority;
+		key[cell] = priority;
+		int b = priority % buckets;
+		int first = head[b];
+		next[cell] = first;
+		prev[cell] = -1;
+		if (first >= 0) prev[first] = cell;
+		head[b] = cell;
+		return true;
+	}
+
+	public int pop() {
+		pops++;
+		int b = cursor % buckets;
+		while (head[b] < 0) {
+			cursor++;
+			if (++b == buckets) b = 0;
+		}
+		int cell = head[b];
+		cursor = key[cell];
+		unlink(cell);
+		prev[cell] = ABSENT;
+		size--;
+		return cell;
+	}
+
+	private void unlink(int cell) {
+		int p = prev[cell], n = next[cell];
+		if (p >= 0) next[p] = n; else head[key[cell] % buckets] = n;
+		if (n >= 0) prev[n] = p;
+	}
+}
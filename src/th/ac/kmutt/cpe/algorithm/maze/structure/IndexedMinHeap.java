@@ -0,0 +1,155 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.util.Arrays;
+
+// Indexed min-heap over cell ids [0, capacity) with int priorities and a real
+// decrease-key. Each cell is in the heap at most once, so no stale entries
+// pile up and nothing is allocated after construction. Priorities live in a
+// slot-ordered array parallel to the cells, and each slot has four children,
+// so a sift touches fewer levels and compares adjacent memory.
+// Operation counts and the peak size are kept for SolveMetrics.
+public class IndexedMinHeap {
+	private final int[] cells;    // heap slot -> cell
+	private final int[] keys;     // heap slot -> priority
+	private final int[] slot;     // cell -> heap slot, -1 when absent
+	private int size;
+	private int peakSize;
+	private long pushes, decreaseKeys, pops;
+
+	public IndexedMinHeap(int capacity) {
+		cells = new int[capacity];
+		keys = new int[capacity];
+		slot = new int[capacity];
+		Arrays.fill(slot, -1);
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public boolean contains(int cell) {
+		return slot[cell] >= 0;
+	}
+
+	// Priority of a queued cell
+	public int keyOf(int cell) {
+		return keys[slot[cell]];
+	}
+
+	public int peek() {
+		return cells[0];
+	}
+
+	public int peekKey() {
+		return keys[0];
+	}
+
+	// Cell in heap slot i < size(); slots are in no useful order, for scans
+	public int cellAt(int i) {
+		return cells[i];
+	}
+
+	// Insert, or lower the priority of a queued cell. Returns false when the
+	// cell is already queued with a priority <= the given one.
+	public boolean pushOrDecrease(int cell, int priority) {
+		int s = slot[cell];
+		if (s < 0) {
+			siftUp(size++, cell, priority);
+			pushes++;
+			if (size > peakSize) peakSize = size;
+			return true;
+		}
+		if (priority >= keys[s]) return false;
+		siftUp(s, cell, priority);
+		decreaseKeys++;
+		return true;
+	}
+
+	// Set a queued cell's priority in either direction, or insert it
+	public void update(int cell, int priority) {
+		int s = slot[cell];
+		if (s < 0 || priority < keys[s]) {
+			pushOrDecrease(cell, priority);
+		} else if (priority > keys[s]) {
+			siftDown(s, cell, priority);
+		}
+	}
+
+	public int pop() {
+		pops++;
+		int top = cells[0];
+		slot[top] = -1;
+		if (--size > 0) {
+			siftDown(0, cells[size], keys[size]);
+		}
+		return top;
+	}
+
+	public int peakSize() {
+		return peakSize;
+	}
+
+	public long pushes() {
+		return pushes;
+	}
+
+	public long decreaseKeys() {
+		return decreaseKeys;
+	}
+
+	public long pops() {
+		return pops;
+	}
+
+	public void clear() {
+		for (int i = 0; i < size; i++) slot[cells[i]] = -1;
+		size = 0;
+	}
+
+	// Place (cell, k) at slot i or above
+	private void siftUp(int i, int cell, int k) {
+		while (i > 0) {
+			int parent = (i - 1) >>> 2;
+			int pk = keys[parent];
+			if (pk <= k) break;
+			int p = cells[parent];
+			cells[i] = p;
+			keys[i] = pk;
+			slot[p] = i;
+			i = parent;
+		}
+		cells[i] = cell;
+		keys[i] = k;
+		slot[cell] = i;
+	}
+
+	// Place (cell, k) at slot i or below
+	private void siftDown(int i, int cell, int k) {
+		while (true) {
+			int first = 4 * i + 1;
+			if (first >= size) break;
+			int last = Math.min(first + 4, size);
+			int child = first;
+			int ck = keys[first];
+			for (int c = first + 1; c < last; c++) {
+				if (keys[c] < ck) {
+					ck = keys[c];
+					child = c;
+				}
+			}
+			if (k <= ck) break;
+			int c = cells[child];
+			cells[i] = c;
+			keys[i] = ck;
+			slot[c] = i;
+			i = child;
+		}
+		cells[i] = cell;
+		keys[i] = k;
+		slot[cell] = i;
+	}
+}
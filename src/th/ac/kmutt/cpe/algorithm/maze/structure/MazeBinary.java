@@ -0,0 +1,160 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Compact binary maze format (.mzb):
+//   header  : magic "MZB1", version, N, M, entranceX, entranceY, exitX, exitY (ints),
+//             weight width in bytes (1 or 2) + 3 padding bytes
+//   walls   : N*M bits, row-major, bit (cell & 7) of byte (cell >> 3), 1 = wall
+//   weights : N*M entries of the weight width (unsigned byte or signed short); walls are -1
+// Files are memory-mapped on load and decoded in one sequential sweep into
+// MazeData's packed cell array (which also holds the solvers' marks), so a load
+// is an O(N*M) copy without any text parsing, not a zero-copy open. Grids are
+// limited to Integer.MAX_VALUE cells like MazeData itself.
+// Usage as a converter: MazeBinary <in.txt> <out.mzb>
+public class MazeBinary {
+	public static final int MAGIC = 0x4D5A4231; // "MZB1"
+	public static final int VERSION = 1;
+	static final int HEADER_BYTES = 36;
+	private static final long MAP_WINDOW = 1L << 29;
+	private static final int WRITE_CHUNK = 1 << 16;
+
+	public static boolean isBinary(String fileName) {
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			if (ch.size() < HEADER_BYTES) return false;
+			ByteBuffer head = ByteBuffer.allocate(4);
+			while (head.hasRemaining() && ch.read(head) > 0) { }
+			return head.position() == 4 && head.getInt(0) == MAGIC;
+		} catch (IOException e) {
+			return false;
+		}
+	}
+
+	public static MazeData read(String fileName) {
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			MappedByteBuffer head = ch.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_BYTES);
+			if (head.getInt() != MAGIC) throw new IllegalArgumentException("Not a binary maze file: " + fileName);
+			int version = head.getInt();
+			if (version != VERSION) throw new IllegalArgumentException("Unsupported binary maze version " + version);
+			int n = head.getInt(), m = head.getInt();
+			int ex = head.getInt(), ey = head.getInt();
+			int gx = head.getInt(), gy = head.getInt();
+			int width = head.get();
+			// Entrance and exit must lie on the grid, or solvers index past it later
+			if (n <= 0 || m <= 0 || (width != 1 && width != 2)
+					|| ex < 0 || ex >= n || ey < 0 || ey >= m || gx < 0 || gx >= n || gy < 0 || gy >= m) {
+				throw new IllegalArgumentException("Corrupt binary maze header: " + fileName);
+			}
+			long cellCount = (long) n * m;
+			if (cellCount > Integer.MAX_VALUE) {
+				throw new IllegalArgumentException("Maze of " + n + "x" + m + " cells exceeds the "
+					+ Integer.MAX_VALUE + "-cell limit: " + fileName);
+			}
+			long wallBytes = (cellCount + 7) >> 3;
+			if (ch.size() < HEADER_BYTES + wallBytes + cellCount * width) {
+				throw new IllegalArgumentException("Truncated binary maze file: " + fileName);
+			}
+
+			MazeData data = new MazeData(n, m);
+			data.setEntrance(ex, ey);
+			data.setExit(gx, gy);
+
+			// A 2-byte weight plane alone can pass 2 GB, more than one mapping
+			// holds, so both planes are walked window by window
+			long wallBase = HEADER_BYTES;
+			long weightBase = HEADER_BYTES + wallBytes;
+			int cell = 0;
+			while (cell < cellCount) {
+				int span = (int) Math.min(cellCount - cell, MAP_WINDOW & ~7L);
+				MappedByteBuffer walls = ch.map(FileChannel.MapMode.READ_ONLY, wallBase + (cell >> 3), (span + 7) >> 3);
+				MappedByteBuffer weights = ch.map(FileChannel.MapMode.READ_ONLY, weightBase + (long) cell * width, (long) span * width);
+				int bits = 0;
+				for (int k = 0; k < span; k++) {
+					if ((k & 7) == 0) bits = walls.get();
+					int w = width == 1 ? (weights.get() & 0xFF) : weights.getShort();
+					if ((bits & 1) != 0) {
+						data.setCell(cell + k, true, -1);
+					} else {
+						data.setCell(cell + k, false, w);
+					}
+					bits >>= 1;
+				}
+				cell += span;
+			}
+			return data;
+		} catch (Exception e) {
+			throw new RuntimeException("Failed to load maze file: " + fileName, e);
+		}
+	}
+
+	public static void write(MazeData data, String fileName) throws IOException {
+		int cells = data.cellCount();
+		int width = 1;
+		for (int c = 0; c < cells; c++) {
+			if (data.isRoad(c)) {
+				int w = data.getWeight(c);
+				if (w < 0 || w > 0xFF) { width = 2; break; }
+			}
+		}
+		Path path = Paths.get(fileName);
+		try (FileChannel ch = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING)) {
+			writeFully(ch, header(data.N(), data.M(), data.getEntranceX(), data.getEntranceY(),
+				data.getExitX(), data.getExitY(), width));
+
+			ByteBuffer out = ByteBuffer.allocate(WRITE_CHUNK);
+			for (int c = 0; c < cells; c += 8) {
+				int bits = 0;
+				for (int k = 0; k < 8 && c + k < cells; k++) {
+					if (!data.isRoad(c + k)) bits |= 1 << k;
+				}
+				if (!out.hasRemaining()) flush(ch, out);
+				out.put((byte) bits);
+			}
+			flush(ch, out);
+			for (int c = 0; c < cells; c++) {
+				int w = data.isRoad(c) ? data.getWeight(c) : -1;
+				if (out.remaining() < 2) flush(ch, out);
+				if (width == 1) out.put((byte) w); else out.putShort((short) w);
+			}
+			flush(ch, out);
+		}
+	}
+
+	// Header ready to write; shared with MazeGenerator's streaming writer
+	static ByteBuffer header(int n, int m, int ex, int ey, int gx, int gy, int width) {
+		ByteBuffer head = ByteBuffer.allocate(HEADER_BYTES);
+		head.putInt(MAGIC).putInt(VERSION).putInt(n).putInt(m)
+			.putInt(ex).putInt(ey).putInt(gx).putInt(gy)
+			.put((byte) width).put((byte) 0).put((byte) 0).put((byte) 0);
+		head.flip();
+		return head;
+	}
+
+	private static void flush(FileChannel ch, ByteBuffer out) throws IOException {
+		out.flip();
+		writeFully(ch, out);
+		out.clear();
+	}
+
+	static void writeFully(FileChannel ch, ByteBuffer buf) throws IOException {
+		while (buf.hasRemaining()) ch.write(buf);
+	}
+
+	public static void main(String[] args) throws IOException {
+		if (args.length != 2) {
+			System.err.println("Usage: MazeBinary <in.txt|in.mzb> <out.mzb>");
+			System.exit(1);
+		}
+		long t0 = System.nanoTime();
+		MazeData data = MazeReader.read(args[0]);
+		write(data, args[1]);
+		System.out.println("Wrote " + args[1] + " (" + data.N() + "x" + data.M() + ") in "
+			+ (System.nanoTime() - t0) / 1_000_000L + "ms");
+	}
+}
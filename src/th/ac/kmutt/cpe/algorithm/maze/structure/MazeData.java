@@ -6,18 +6,29 @@ import java.util.ArrayList;
 import java.util.Random;
 import java.util.Scanner;
 
-public class MazeData {
+public class MazeData implements MazeView {
 	
 	private int N, M;
 	private int entranceX, entranceY;
 	private int exitX, exitY;
-	private char[][] maze;
-	public boolean[][] path;
-	public boolean[][] visited;
-	public boolean[][] result;
-	public int[][] weight;
+	// One packed row-major word per cell (index = x * M + y):
+	// bit 0 wall, bit 1 visited, bit 2 path, bit 3 result, bits 16..31 signed weight
+	private int[] cells;
+	// Step cost range over road cells, computed on first use (null = not yet known).
+	// One immutable holder, so racing solvers see both bounds or neither.
+	private volatile StepCosts stepCosts;
 	public static final char WALL ='#';
 	public static final char ROAD = ' ';
+
+	// Same order as the solvers' directions table: up, right, down, left
+	public static final int[][] DIRECTIONS = { { -1, 0 }, { 0, 1 }, { 1, 0 }, { 0, -1 } };
+
+	private static final int WALL_BIT = 1;
+	private static final int VISITED_BIT = 1 << 1;
+	private static final int PATH_BIT = 1 << 2;
+	private static final int RESULT_BIT = 1 << 3;
+	private static final int MARK_BITS = VISITED_BIT | PATH_BIT | RESULT_BIT;
+	private static final int WEIGHT_SHIFT = 16;
 	
 	public MazeData(String fileName) {
 		Scanner scanner = null;
@@ -40,50 +51,22 @@ public class MazeData {
 				String[] nm = first.split("\\s+");
 				N = Integer.parseInt(nm[0]);
 				M = Integer.parseInt(nm[1]);
-				maze = new char[N][M];
-				path = new boolean[N][M];
-				visited = new boolean[N][M];
-				result = new boolean[N][M];
-				weight = new int[N][M];
-
-				this.exitX = N - 2;
-				this.exitY = M - 1;
+				cells = new int[N * M];
 
 				for (int i = 0; i < N; i++) {
 					String line = lines.get(i + 1);
 					for (int j = 0; j < M; j++) {
-						maze[i][j] = line.charAt(j);
-					}
-				}
-
-				// Detect entrance (left edge) and exit (right edge) if present
-				for (int i = 0; i < N; i++) {
-					if (maze[i][0] == ROAD) { entranceX = i; entranceY = 0; break; }
-				}
-				for (int i = 0; i < N; i++) {
-					if (maze[i][M - 1] == ROAD) { exitX = i; exitY = M - 1; break; }
-				}
-
-				// Initialize default weights: walls=-1, roads in [1,9]
-				Random rand = new Random(42);
-				for (int i = 0; i < N; i++) {
-					for (int j = 0; j < M; j++) {
-						if (maze[i][j] == ROAD) {
-							weight[i][j] = 1 + rand.nextInt(9);
-						} else {
-							weight[i][j] = -1;
-						}
+						if (line.charAt(j) != ROAD) cells[i * M + j] = WALL_BIT;
 					}
 				}
+				initLegacyDefaults();
 			} else {
 				// New weighted format: no header, tokens per cell (#, S, G, or "number")
 				N = lines.size();
 				M = countCells(lines.get(0));
-				maze = new char[N][M];
-				path = new boolean[N][M];
-				visited = new boolean[N][M];
-				result = new boolean[N][M];
-				weight = new int[N][M];
+				cells = new int[N * M];
+				// Cells a short row never reaches stay walls
+				java.util.Arrays.fill(cells, WALL_BIT | (-1 << WEIGHT_SHIFT));
 
 				// Defaults in case S/G not present
 				entranceX = 1; entranceY = 1;
@@ -102,6 +85,42 @@ public class MazeData {
 		}
 	}
 
+	// Empty grid of walls for the streaming loaders; callers fill it via setCell
+	MazeData(int N, int M) {
+		if ((long) N * M > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException("Maze of " + N + "x" + M + " cells exceeds the "
+				+ Integer.MAX_VALUE + "-cell limit");
+		}
+		this.N = N;
+		this.M = M;
+		this.cells = new int[N * M];
+		java.util.Arrays.fill(cells, WALL_BIT | (-1 << WEIGHT_SHIFT));
+		entranceX = 1; entranceY = 1;
+		exitX = N - 2; exitY = M - 2;
+	}
+
+	// Old-format finishing step: find edge openings and assign seeded weights
+	void initLegacyDefaults() {
+		this.entranceX = 0;
+		this.entranceY = 0;
+		this.exitX = N - 2;
+		this.exitY = M - 1;
+
+		// Detect entrance (left edge) and exit (right edge) if present
+		for (int i = 0; i < N; i++) {
+			if (isRoad(i * M)) { entranceX = i; entranceY = 0; break; }
+		}
+		for (int i = 0; i < N; i++) {
+			if (isRoad(i * M + M - 1)) { exitX = i; exitY = M - 1; break; }
+		}
+
+		// Initialize default weights: walls=-1, roads in [1,9]
+		Random rand = new Random(42);
+		for (int c = 0; c < cells.length; c++) {
+			setWeight(c, isRoad(c) ? 1 + rand.nextInt(9) : -1);
+		}
+	}
+
 	// Count number of cells in a weighted-format line
 	private int countCells(String line) {
 		int i = 0; int count = 0; int len = line.length();
@@ -126,18 +145,16 @@ public class MazeData {
 		int i = 0; int col = 0; int len = line.length();
 		while (i < len && col < M) {
 			char c = line.charAt(i);
+			int cell = row * M + col;
 			if (c == '#') {
-				maze[row][col] = WALL;
-				weight[row][col] = -1;
+				setCell(cell, true, -1);
 				i++; col++;
 			} else if (c == 'S') {
-				maze[row][col] = ROAD;
-				weight[row][col] = 1;
+				setCell(cell, false, 1);
 				entranceX = row; entranceY = col;
 				i++; col++;
 			} else if (c == 'G') {
-				maze[row][col] = ROAD;
-				weight[row][col] = 1;
+				setCell(cell, false, 1);
 				exitX = row; exitY = col;
 				i++; col++;
 			} else if (c == '"') {
@@ -145,12 +162,9 @@ public class MazeData {
 				while (i < len && line.charAt(i) != '"') i++;
 				String num = line.substring(start, Math.min(i, len));
 				try {
-					int w = Integer.parseInt(num);
-					maze[row][col] = ROAD;
-					weight[row][col] = w;
+					setCell(cell, false, Integer.parseInt(num));
 				} catch (NumberFormatException ex) {
-					maze[row][col] = ROAD;
-					weight[row][col] = 1;
+					setCell(cell, false, 1);
 				}
 				if (i < len && line.charAt(i) == '"') i++;
 				col++;
@@ -160,13 +174,162 @@ public class MazeData {
 			}
 		}
 	}
+
+	// Weights are stored as a signed 16-bit field; larger values saturate
+	private void setWeight(int cell, int w) {
+		if (w > Short.MAX_VALUE) w = Short.MAX_VALUE;
+		if (w < Short.MIN_VALUE) w = Short.MIN_VALUE;
+		cells[cell] = (cells[cell] & 0xFFFF) | (w << WEIGHT_SHIFT);
+	}
+
+	// Overwrite a cell's wall bit and weight, dropping any marks. Only for
+	// loaders filling a fresh grid before it is handed out: the step cost
+	// range is not reset here, which keeps the per-cell store plain.
+	void setCell(int cell, boolean wall, int w) {
+		cells[cell] = wall ? WALL_BIT : 0;
+		setWeight(cell, w);
+	}
+
+	void setEntrance(int x, int y) {
+		entranceX = x; entranceY = y;
+	}
+
+	void setExit(int x, int y) {
+		exitX = x; exitY = y;
+	}
 	
 	public boolean inArea(int x, int y) {
 		return x >= 0 && x < N && y >=0 && y < M;
 	}
 	
 	public char getMazeChar(int i, int j) {
-		return maze[i][j];
+		return (cells[i * M + j] & WALL_BIT) != 0 ? WALL : ROAD;
+	}
+
+	public int index(int x, int y) {
+		return x * M + y;
+	}
+
+	public int cellX(int cell) {
+		return cell / M;
+	}
+
+	public int cellY(int cell) {
+		return cell % M;
+	}
+
+	public int cellCount() {
+		return cells.length;
+	}
+
+	// Neighbouring cell id in DIRECTIONS[dir], or -1 when it falls outside the grid
+	public int neighbor(int cell, int dir) {
+		switch (dir) {
+			case 0: return cell >= M ? cell - M : -1;
+			case 1: return (cell % M) + 1 < M ? cell + 1 : -1;
+			case 2: return cell + M < cells.length ? cell + M : -1;
+			default: return cell % M > 0 ? cell - 1 : -1;
+		}
+	}
+
+	public boolean isRoad(int cell) {
+		return (cells[cell] & WALL_BIT) == 0;
+	}
+
+	public int getWeight(int cell) {
+		return cells[cell] >> WEIGHT_SHIFT;
+	}
+
+	// Cost of entering a road cell; non-positive weights count as 1
+	public int stepCost(int cell) {
+		int w = cells[cell] >> WEIGHT_SHIFT;
+		return w > 0 ? w : 1;
+	}
+
+	public int minStepCost() {
+		return stepCosts().min;
+	}
+
+	public int maxStepCost() {
+		return stepCosts().max;
+	}
+
+	// True when every road costs the same to enter, so fewest steps is also cheapest
+	public boolean hasUniformWeights() {
+		StepCosts costs = stepCosts();
+		return costs.min == costs.max;
+	}
+
+	private StepCosts stepCosts() {
+		StepCosts costs = stepCosts;
+		if (costs == null) stepCosts = costs = scanStepCosts();
+		return costs;
+	}
+
+	private StepCosts scanStepCosts() {
+		int min = Integer.MAX_VALUE, max = 1;
+		for (int c = 0; c < cells.length; c++) {
+			if ((cells[c] & WALL_BIT) != 0) continue;
+			int w = stepCost(c);
+			min = Math.min(min, w);
+			max = Math.max(max, w);
+		}
+		return new StepCosts(min == Integer.MAX_VALUE ? max : min, max);
+	}
+
+	private static final class StepCosts {
+		final int min, max;
+
+		StepCosts(int min, int max) {
+			this.min = min;
+			this.max = max;
+		}
+	}
+
+	public boolean isVisited(int cell) {
+		return (cells[cell] & VISITED_BIT) != 0;
+	}
+
+	public void setVisited(int cell, boolean on) {
+		setBit(cell, VISITED_BIT, on);
+	}
+
+	public boolean isPath(int cell) {
+		return (cells[cell] & PATH_BIT) != 0;
+	}
+
+	public void setPath(int cell, boolean on) {
+		setBit(cell, PATH_BIT, on);
+	}
+
+	public boolean isResult(int cell) {
+		return (cells[cell] & RESULT_BIT) != 0;
+	}
+
+	public void setResult(int cell, boolean on) {
+		setBit(cell, RESULT_BIT, on);
+	}
+
+	private void setBit(int cell, int bit, boolean on) {
+		if (on) cells[cell] |= bit; else cells[cell] &= ~bit;
+	}
+
+	// Clear visited/path/result marks, keeping walls and weights
+	public void clearMarks() {
+		for (int c = 0; c < cells.length; c++) cells[c] &= ~MARK_BITS;
+	}
+
+	// Clear only the transient path marks
+	public void clearPathMarks() {
+		for (int c = 0; c < cells.length; c++) cells[c] &= ~PATH_BIT;
+	}
+
+	public int getEntrance() {
+		return entranceX * M + entranceY;
+	}
+
+	public int getExit() {
+		return exitX * M + exitY;
 	}
 
 	public int getExitX() {
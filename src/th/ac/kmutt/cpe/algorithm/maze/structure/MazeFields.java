@@ -0,0 +1,142 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.lang.ref.WeakReference;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.Map;
+import java.util.WeakHashMap;
+
+// Per-maze fields derived from the grid and the exit, each built on first use
+// and then shared by every run on the same maze:
+//  - stepsToGoal: fewest moves from a cell to the exit (unweighted BFS); the
+//    GA engines' distance map
+//  - costToGoal: cheapest cost from a cell to the exit (reverse Dijkstra),
+//    charging each entered cell's stepCost but not the cell itself; Auto
+//    reads its route off it when some caller has already built it
+// Cells that cannot reach the exit hold UNREACHABLE in both. The arrays are
+// shared, so callers must treat them as read-only.
+// Entries are keyed by maze identity and held weakly, so importing a new
+// maze drops the old fields; invalidate() releases them straight away.
+public class MazeFields {
+	public static final int UNREACHABLE = Integer.MAX_VALUE;
+
+	private static final Map<MazeView, MazeFields> CACHE = Collections.synchronizedMap(new WeakHashMap<>());
+
+	// Weak so the cached value does not keep its own key alive
+	private final WeakReference<MazeView> maze;
+	private final int entrance;
+	// Built under their own locks, so a GA waiting on the BFS never waits on the Dijkstra
+	private final Object stepsLock = new Object(), costLock = new Object();
+	private volatile int[] stepsToGoal;
+	private volatile int[] costToGoal;
+
+	private MazeFields(MazeView maze) {
+		this.maze = new WeakReference<>(maze);
+		entrance = maze.getEntrance();
+	}
+
+	// The maze's entry, created empty; no field is built until asked for
+	public static MazeFields of(MazeView maze) {
+		MazeFields fields = CACHE.get(maze);
+		if (fields != null) return fields;
+		fields = new MazeFields(maze);
+		MazeFields prior = CACHE.putIfAbsent(maze, fields);
+		return prior != null ? prior : fields;
+	}
+
+	// Entry already made for this maze, or null; never creates one
+	public static MazeFields peek(MazeView maze) {
+		return CACHE.get(maze);
+	}
+
+	public static void invalidate(MazeView maze) {
+		CACHE.remove(maze);
+	}
+
+	public int[] stepsToGoal() {
+		int[] field = stepsToGoal;
+		if (field == null) {
+			synchronized (stepsLock) {
+				field = stepsToGoal;
+				if (field == null) stepsToGoal = field = bfsFromGoal(maze());
+			}
+		}
+		return field;
+	}
+
+	public int[] costToGoal() {
+		int[] field = costToGoal;
+		if (field == null) {
+			synchronized (costLock) {
+				field = costToGoal;
+				if (field == null) costToGoal = field = dijkstraFromGoal(maze());
+			}
+		}
+		return field;
+	}
+
+	// costToGoal is built, so reading it costs nothing
+	public boolean hasCostToGoal() {
+		return costToGoal != null;
+	}
+
+	private MazeView maze() {
+		MazeView m = maze.get();
+		// Only reachable through a caller that still holds the maze
+		if (m == null) throw new IllegalStateException("Maze of these fields is gone");
+		return m;
+	}
+
+	public boolean isReachable(int cell) {
+		return stepsToGoal()[cell] != UNREACHABLE;
+	}
+
+	// Exit reachable from the entrance
+	public boolean isSolvable() {
+		return isReachable(entrance);
+	}
+
+	private static int[] bfsFromGoal(MazeView maze) {
+		int[] dist = new int[maze.cellCount()];
+		Arrays.fill(dist, UNREACHABLE);
+		int goal = maze.getExit();
+		if (!maze.isRoad(goal)) return dist;
+		int[] q = new int[maze.cellCount()];
+		int head = 0, tail = 0;
+		dist[goal] = 0;
+		q[tail++] = goal;
+		while (head < tail) {
+			int cur = q[head++];
+			int cd = dist[cur];
+			for (int d = 0; d < 4; d++) {
+				int next = maze.neighbor(cur, d);
+				if (next < 0 || !maze.isRoad(next) || dist[next] != UNREACHABLE) continue;
+				dist[next] = cd + 1;
+				q[tail++] = next;
+			}
+		}
+		return dist;
+	}
+
+	private static int[] dijkstraFromGoal(MazeView maze) {
+		int[] dist = new int[maze.cellCount()];
+		Arrays.fill(dist, UNREACHABLE);
+		int goal = maze.getExit();
+		if (!maze.isRoad(goal)) return dist;
+		IndexedMinHeap open = new IndexedMinHeap(maze.cellCount());
+		dist[goal] = 0;
+		open.pushOrDecrease(goal, 0);
+		while (!open.isEmpty()) {
+			int cur = open.pop();
+			// Stepping back from cur means the route enters cur
+			int newCost = dist[cur] + maze.stepCost(cur);
+			for (int d = 0; d < 4; d++) {
+				int next = maze.neighbor(cur, d);
+				if (next < 0 || !maze.isRoad(next) || newCost >= dist[next]) continue;
+				dist[next] = newCost;
+				open.pushOrDecrease(next, newCost);
+			}
+		}
+		return dist;
+	}
+}
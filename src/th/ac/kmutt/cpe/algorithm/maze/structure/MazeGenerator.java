@@ -0,0 +1,530 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.io.BufferedOutputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Arrays;
+import java.util.SplittableRandom;
+
+// Procedural mazes of any size for benchmarks and solver checks. The grid is a
+// lattice of square rooms (single cells for corridor mazes) separated by
+// one-cell walls; the topology decides which walls get a door:
+//  - PERFECT: Eller's algorithm, one row of rooms at a time, so memory is
+//    O(cols) however many rows are written
+//  - BACKTRACKER: recursive backtracker (iterative), longer corridors; keeps
+//    three bits per cell in memory while it carves
+//  - BRAIDED: Eller's, then each dead end is opened into a neighbour with
+//    probability braid, which gives loops and no (or few) dead ends
+//  - ROOMS: Eller's over roomSize x roomSize open rooms, plus an extra door in
+//    any closed wall between rooms with probability loops
+// S is the top-left cell, G the bottom-right cell of the last room. Rows are
+// produced and written one at a time in any of the formats MazeReader loads.
+// Every random choice comes from seed, so the same settings give the same file.
+public class MazeGenerator {
+	public enum Topology { PERFECT, BACKTRACKER, BRAIDED, ROOMS }
+
+	public enum Weights {
+		// Every road costs 1
+		CONSTANT,
+		// 1..maxWeight, all equally likely
+		UNIFORM,
+		// Mostly cheap with rare expensive cells (cube of a uniform draw)
+		SKEWED,
+		// Cheap along the main diagonal, up to maxWeight in the far corners
+		GRADIENT
+	}
+
+	public enum Format {
+		// "N M" header and ' '/'#' rows; the reader opens the edges and picks weights
+		LEGACY,
+		// '#', 'S', 'G' and "n" tokens
+		WEIGHTED,
+		// MazeBinary .mzb
+		BINARY
+	}
+
+	public final int rows, cols;
+	public Topology topology = Topology.PERFECT;
+	public Weights weights = Weights.UNIFORM;
+	public int maxWeight = 9;
+	public int roomSize = 8;
+	public double loops = 0.25;
+	public double braid = 1.0;
+	public long seed = 42;
+
+	private interface Layout {
+		// Doors of room row k: east[c] joins rooms c and c + 1, down[c] joins
+		// room c with the one below
+		void nextRow(int k, boolean[] east, boolean[] down);
+	}
+
+	private interface RowSink {
+		void row(int i, boolean[] road, int[] weight) throws IOException;
+
+		default void close() throws IOException { }
+	}
+
+	public MazeGenerator(int rows, int cols) {
+		if (rows < 3 || cols < 3) throw new IllegalArgumentException("Maze must be at least 3x3");
+		this.rows = rows;
+		this.cols = cols;
+	}
+
+	// Whole maze in memory, as it would load from any written format but LEGACY
+	public MazeData generate() {
+		MazeData data = new MazeData(rows, cols);
+		try {
+			run(new RowSink() {
+				public void row(int i, boolean[] road, int[] weight) {
+					for (int j = 0; j < cols; j++) data.setCell(i * cols + j, !road[j], road[j] ? weight[j] : -1);
+				}
+			}, false);
+		} catch (IOException e) {
+			throw new IllegalStateException(e);
+		}
+		data.setEntrance(entranceX(), entranceY());
+		data.setExit(exitX(), exitY());
+		return data;
+	}
+
+	public void write(String fileName, Format format) throws IOException {
+		switch (format) {
+			case LEGACY: {
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16)) {
+					out.write((rows + " " + cols + "\n").getBytes(StandardCharsets.US_ASCII));
+					byte[] line = new byte[cols + 1];
+					line[cols] = '\n';
+					run((i, road, weight) -> {
+						for (int j = 0; j < cols; j++) line[j] = (byte) (road[j] ? MazeData.ROAD : MazeData.WALL);
+						out.write(line);
+					}, true);
+				}
+				break;
+			}
+			case WEIGHTED: {
+				try (OutputStream out = new BufferedOutputStream(new FileOutputStream(fileName), 1 << 16)) {
+					byte[] line = new byte[cols * 8 + 1];
+					int sx = entranceX(), sy = entranceY(), gx = exitX(), gy = exitY();
+					run((i, road, weight) -> {
+						int p = 0;
+						for (int j = 0; j < cols; j++) {
+							if (i == sx && j == sy) line[p++] = 'S';
+							else if (i == gx && j == gy) line[p++] = 'G';
+							else if (!road[j]) line[p++] = '#';
+							else {
+								line[p++] = '"';
+								p = putInt(line, p, weight[j]);
+								line[p++] = '"';
+							}
+						}
+						line[p++] = '\n';
+						out.write(line, 0, p);
+					}, false);
+				}
+				break;
+			}
+			case BINARY: {
+				try (BinarySink sink = new BinarySink(fileName)) {
+					run(sink, false);
+				}
+				break;
+			}
+		}
+	}
+
+	public int entranceX() {
+		return 1;
+	}
+
+	public int entranceY() {
+		return 1;
+	}
+
+	public int exitX() {
+		return (roomRows() - 1) * (room() + 1) + room();
+	}
+
+	public int exitY() {
+		return (roomCols() - 1) * (room() + 1) + room();
+	}
+
+	private int room() {
+		return topology == Topology.ROOMS ? Math.max(1, roomSize) : 1;
+	}
+
+	private int roomRows() {
+		return Math.max(1, (rows - 1) / (room() + 1));
+	}
+
+	private int roomCols() {
+		return Math.max(1, (cols - 1) / (room() + 1));
+	}
+
+	// Drives the layout room row by room row and hands out grid rows. The wall
+	// row above a room row is held back until that row is final, because
+	// braiding may still open a door upwards.
+	private void run(RowSink sink, boolean openEdges) throws IOException {
+		SplittableRandom rnd = new SplittableRandom(seed);
+		SplittableRandom weightRnd = rnd.split();
+		int s = room();
+		int rr = roomRows(), rc = roomCols();
+		if (rr * (s + 1) + 1 > rows || rc * (s + 1) + 1 > cols) {
+			throw new IllegalArgumentException("Maze of " + rows + "x" + cols + " is too small for rooms of " + s);
+		}
+		Layout layout = topology == Topology.BACKTRACKER ? new Backtracker(rr, rc, rnd) : new Eller(rr, rc, rnd);
+
+		boolean[] east = new boolean[rc], down = new boolean[rc], up = new boolean[rc];
+		int[] eastDoor = new int[rc], downDoor = new int[rc], upDoor = new int[rc];
+		boolean[] road = new boolean[cols];
+		int[] weight = new int[cols];
+		int sx = entranceX(), sy = entranceY(), gx = exitX(), gy = exitY();
+		int i = 0;
+		for (int k = 0; k < rr; k++) {
+			boolean last = k == rr - 1;
+			layout.nextRow(k, east, down);
+			if (topology == Topology.BRAIDED) braid(k, rr, up, east, down, rnd);
+			if (topology == Topology.ROOMS) {
+				for (int c = 0; c < rc; c++) {
+					if (c < rc - 1 && !east[c] && rnd.nextDouble() < loops) east[c] = true;
+					if (!last && !down[c] && rnd.nextDouble() < loops) down[c] = true;
+				}
+			}
+			for (int c = 0; c < rc; c++) {
+				eastDoor[c] = s > 1 ? rnd.nextInt(s) : 0;
+				downDoor[c] = s > 1 ? rnd.nextInt(s) : 0;
+			}
+			// Wall row above room row k: doors where the row above went down
+			Arrays.fill(road, false);
+			for (int c = 0; c < rc; c++) {
+				if (up[c]) road[c * (s + 1) + 1 + upDoor[c]] = true;
+			}
+			emit(sink, i++, road, weight, weightRnd, openEdges, sx, sy, gx, gy);
+			for (int r = 0; r < s; r++) {
+				Arrays.fill(road, false);
+				for (int c = 0; c < rc; c++) {
+					int base = c * (s + 1) + 1;
+					Arrays.fill(road, base, base + s, true);
+					if (east[c] && eastDoor[c] == r) road[base + s] = true;
+				}
+				emit(sink, i++, road, weight, weightRnd, openEdges, sx, sy, gx, gy);
+			}
+			boolean[] t = up; up = down; down = t;
+			int[] d = upDoor; upDoor = downDoor; downDoor = d;
+		}
+		// Bottom border and any rows the room lattice does not cover
+		Arrays.fill(road, false);
+		while (i < rows) emit(sink, i++, road, weight, weightRnd, openEdges, sx, sy, gx, gy);
+		sink.close();
+	}
+
+	private void emit(RowSink sink, int i, boolean[] road, int[] weight, SplittableRandom weightRnd,
+			boolean openEdges, int sx, int sy, int gx, int gy) throws IOException {
+		if (openEdges) {
+			// Old format finds its entrance and exit as openings in the side walls
+			if (i == sx) Arrays.fill(road, 0, sy, true);
+			if (i == gx) Arrays.fill(road, gy + 1, cols, true);
+		}
+		for (int j = 0; j < cols; j++) {
+			if (!road[j]) weight[j] = -1;
+			else if ((i == sx && j == sy) || (i == gx && j == gy)) weight[j] = 1;
+			else weight[j] = weight(i, j, weightRnd);
+		}
+		sink.row(i, road, weight);
+	}
+
+	private int weight(int i, int j, SplittableRandom rnd) {
+		int max = Math.max(1, Math.min(maxWeight, Short.MAX_VALUE));
+		switch (weights) {
+			case CONSTANT:
+				return 1;
+			case SKEWED: {
+				double u = rnd.nextDouble();
+				return 1 + (int) (u * u * u * max);
+			}
+			case GRADIENT: {
+				double off = Math.abs(i / (double) rows - j / (double) cols);
+				int w = 1 + (int) Math.round(off * (max - 1)) + rnd.nextInt(2);
+				return Math.min(max, w);
+			}
+			default:
+				return 1 + rnd.nextInt(max);
+		}
+	}
+
+	// Open one closed side of each dead end (a room with a single door), with
+	// probability braid; up is still editable since its wall row is unwritten
+	private void braid(int k, int rr, boolean[] up, boolean[] east, boolean[] down, SplittableRandom rnd) {
+		int rc = east.length;
+		int[] closed = new int[4];
+		for (int c = 0; c < rc; c++) {
+			boolean west = c > 0 && east[c - 1];
+			int doors = (up[c] ? 1 : 0) + (down[c] ? 1 : 0) + (west ? 1 : 0) + (east[c] ? 1 : 0);
+			if (doors != 1 || rnd.nextDouble() >= braid) continue;
+			int n = 0;
+			if (!up[c] && k > 0) closed[n++] = 0;
+			if (!east[c] && c < rc - 1) closed[n++] = 1;
+			if (!down[c] && k < rr - 1) closed[n++] = 2;
+			if (!west && c > 0) closed[n++] = 3;
+			if (n == 0) continue;
+			switch (closed[rnd.nextInt(n)]) {
+				case 0: up[c] = true; break;
+				case 1: east[c] = true; break;
+				case 2: down[c] = true; break;
+				default: east[c - 1] = true;
+			}
+		}
+	}
+
+	// Decimal digits of a non-negative int into buf at p; returns the new end
+	private static int putInt(byte[] buf, int p, int v) {
+		if (v < 0) {
+			buf[p++] = '-';
+			v = -v;
+		}
+		int start = p;
+		do {
+			buf[p++] = (byte) ('0' + v % 10);
+			v /= 10;
+		} while (v > 0);
+		for (int a = start, b = p - 1; a < b; a++, b--) {
+			byte t = buf[a]; buf[a] = buf[b]; buf[b] = t;
+		}
+		return p;
+	}
+
+	// Eller's algorithm: only the current row's set labels are kept. Labels stay
+	// in [0, cols) by renumbering every row, and joins go through a per-row
+	// union-find so a merge never relabels the whole row.
+	private static final class Eller implements Layout {
+		private final int roomRows;
+		private final SplittableRandom rnd;
+		private final int[] set, parent, remap, count, pick;
+		private final boolean[] hasDown;
+
+		Eller(int roomRows, int roomCols, SplittableRandom rnd) {
+			this.roomRows = roomRows;
+			this.rnd = rnd;
+			set = new int[roomCols];
+			parent = new int[roomCols];
+			remap = new int[roomCols];
+			count = new int[roomCols];
+			pick = new int[roomCols];
+			hasDown = new boolean[roomCols];
+			for (int c = 0; c < roomCols; c++) set[c] = c;
+		}
+
+		public void nextRow(int k, boolean[] east, boolean[] down) {
+			int n = set.length;
+			boolean last = k == roomRows - 1;
+			for (int c = 0; c < n; c++) parent[c] = c;
+			// Join neighbours from different sets at random; the last row joins all
+			for (int c = 0; c < n - 1; c++) {
+				int a = find(set[c]), b = find(set[c + 1]);
+				east[c] = a != b && (last || rnd.nextBoolean());
+				if (east[c]) parent[b] = a;
+			}
+			east[n - 1] = false;
+			for (int c = 0; c < n; c++) set[c] = find(set[c]);
+			if (last) {
+				Arrays.fill(down, false);
+				return;
+			}
+			// Every set goes down at least once, through a uniformly picked room
+			for (int c = 0; c < n; c++) {
+				count[set[c]] = 0;
+				hasDown[set[c]] = false;
+			}
+			for (int c = 0; c < n; c++) {
+				int id = set[c];
+				down[c] = rnd.nextBoolean();
+				if (down[c]) hasDown[id] = true;
+				if (rnd.nextInt(++count[id]) == 0) pick[id] = c;
+			}
+			for (int c = 0; c < n; c++) {
+				int id = set[c];
+				if (!hasDown[id]) {
+					down[pick[id]] = true;
+					hasDown[id] = true;
+				}
+			}
+			// Rooms below a door keep their set, the others start a new one
+			Arrays.fill(remap, -1);
+			int next = 0;
+			for (int c = 0; c < n; c++) {
+				if (!down[c]) continue;
+				int id = set[c];
+				if (remap[id] < 0) remap[id] = next++;
+				set[c] = remap[id];
+			}
+			for (int c = 0; c < n; c++) {
+				if (!down[c]) set[c] = next++;
+			}
+		}
+
+		private int find(int x) {
+			while (parent[x] != x) {
+				parent[x] = parent[parent[x]];
+				x = parent[x];
+			}
+			return x;
+		}
+	}
+
+	// Recursive backtracker carved up front with an explicit stack; visited,
+	// east-door and down-door flags are bit-packed
+	private static final class Backtracker implements Layout {
+		private final int roomCols;
+		private final long[] eastBits, downBits;
+
+		Backtracker(int roomRows, int roomCols, SplittableRandom rnd) {
+			this.roomCols = roomCols;
+			long total = (long) roomRows * roomCols;
+			if (total > Integer.MAX_VALUE) throw new IllegalArgumentException("Too many rooms for BACKTRACKER");
+			int words = (int) ((total + 63) >>> 6);
+			long[] visited = new long[words];
+			eastBits = new long[words];
+			downBits = new long[words];
+			int[] stack = new int[1024];
+			int top = 0;
+			stack[top++] = 0;
+			set(visited, 0);
+			int[] options = new int[4];
+			while (top > 0) {
+				int cur = stack[top - 1];
+				int r = cur / roomCols, c = cur % roomCols;
+				int n = 0;
+				if (r > 0 && !get(visited, cur - roomCols)) options[n++] = cur - roomCols;
+				if (c < roomCols - 1 && !get(visited, cur + 1)) options[n++] = cur + 1;
+				if (r < roomRows - 1 && !get(visited, cur + roomCols)) options[n++] = cur + roomCols;
+				if (c > 0 && !get(visited, cur - 1)) options[n++] = cur - 1;
+				if (n == 0) {
+					top--;
+					continue;
+				}
+				int next = options[rnd.nextInt(n)];
+				if (next == cur + 1) set(eastBits, cur);
+				else if (next == cur - 1) set(eastBits, next);
+				else if (next == cur + roomCols) set(downBits, cur);
+				else set(downBits, next);
+				set(visited, next);
+				if (top == stack.length) stack = Arrays.copyOf(stack, stack.length * 2);
+				stack[top++] = next;
+			}
+		}
+
+		public void nextRow(int k, boolean[] east, boolean[] down) {
+			int base = k * roomCols;
+			for (int c = 0; c < roomCols; c++) {
+				east[c] = get(eastBits, base + c);
+				down[c] = get(downBits, base + c);
+			}
+		}
+
+		private static boolean get(long[] bits, int i) {
+			return (bits[i >>> 6] & (1L << i)) != 0;
+		}
+
+		private static void set(long[] bits, int i) {
+			bits[i >>> 6] |= 1L << i;
+		}
+	}
+
+	// Streams both planes of the .mzb layout at once: wall bits continue across
+	// row boundaries, weights go to their own region further into the file
+	private final class BinarySink implements RowSink, AutoCloseable {
+		private final FileChannel ch;
+		private final int width;
+		private final ByteBuffer walls = ByteBuffer.allocate(1 << 16);
+		private final ByteBuffer weightsOut = ByteBuffer.allocate(1 << 16);
+		private long wallPos, weightPos;
+		private int bits, bitCount;
+
+		BinarySink(String fileName) throws IOException {
+			ch = FileChannel.open(Paths.get(fileName), java.nio.file.StandardOpenOption.CREATE,
+				java.nio.file.StandardOpenOption.WRITE, java.nio.file.StandardOpenOption.TRUNCATE_EXISTING);
+			width = weights == Weights.CONSTANT || maxWeight <= 0xFF ? 1 : 2;
+			ByteBuffer head = MazeBinary.header(rows, cols, entranceX(), entranceY(), exitX(), exitY(), width);
+			MazeBinary.writeFully(ch, head);
+			wallPos = MazeBinary.HEADER_BYTES;
+			weightPos = wallPos + (((long) rows * cols + 7) >> 3);
+		}
+
+		public void row(int i, boolean[] road, int[] weight) throws IOException {
+			for (int j = 0; j < cols; j++) {
+				if (!road[j]) bits |= 1 << bitCount;
+				if (++bitCount == 8) {
+					if (!walls.hasRemaining()) wallPos = flush(walls, wallPos);
+					walls.put((byte) bits);
+					bits = 0;
+					bitCount = 0;
+				}
+				if (weightsOut.remaining() < 2) weightPos = flush(weightsOut, weightPos);
+				if (width == 1) weightsOut.put((byte) weight[j]); else weightsOut.putShort((short) weight[j]);
+			}
+		}
+
+		@Override
+		public void close() throws IOException {
+			if (!ch.isOpen()) return;
+			try {
+				if (bitCount > 0) {
+					if (!walls.hasRemaining()) wallPos = flush(walls, wallPos);
+					walls.put((byte) bits);
+					bitCount = 0;
+				}
+				wallPos = flush(walls, wallPos);
+				weightPos = flush(weightsOut, weightPos);
+			} finally {
+				ch.close();
+			}
+		}
+
+		private long flush(ByteBuffer buf, long pos) throws IOException {
+			buf.flip();
+			while (buf.hasRemaining()) pos += ch.write(buf, pos);
+			buf.clear();
+			return pos;
+		}
+	}
+
+	// Usage: MazeGenerator <rows> <cols> <out> [--topology perfect|backtracker|braided|rooms]
+	//        [--weights constant|uniform|skewed|gradient] [--max-weight 9] [--room 8]
+	//        [--loops 0.25] [--braid 1.0] [--seed 42] [--format legacy|weighted|binary]
+	// The format defaults to binary for .mzb files and weighted otherwise.
+	public static void main(String[] args) throws IOException {
+		if (args.length < 3) {
+			System.err.println("Usage: MazeGenerator <rows> <cols> <out> [--topology perfect|backtracker|braided|rooms]\n"
+				+ "       [--weights constant|uniform|skewed|gradient] [--max-weight 9] [--room 8]\n"
+				+ "       [--loops 0.25] [--braid 1.0] [--seed 42] [--format legacy|weighted|binary]");
+			System.exit(1);
+		}
+		MazeGenerator gen = new MazeGenerator(Integer.parseInt(args[0]), Integer.parseInt(args[1]));
+		String out = args[2];
+		Format format = out.endsWith(".mzb") ? Format.BINARY : Format.WEIGHTED;
+		for (int i = 3; i < args.length; i++) {
+			String a = args[i];
+			if (i + 1 >= args.length) throw new IllegalArgumentException("Missing value for " + a);
+			String v = args[++i];
+			switch (a) {
+				case "--topology": gen.topology = Topology.valueOf(v.toUpperCase()); break;
+				case "--weights": gen.weights = Weights.valueOf(v.toUpperCase()); break;
+				case "--max-weight": gen.maxWeight = Integer.parseInt(v); break;
+				case "--room": gen.roomSize = Integer.parseInt(v); break;
+				case "--loops": gen.loops = Double.parseDouble(v); break;
+				case "--braid": gen.braid = Double.parseDouble(v); break;
+				case "--seed": gen.seed = Long.parseLong(v); break;
+				case "--format": format = Format.valueOf(v.toUpperCase()); break;
+				default: throw new IllegalArgumentException("Unknown option " + a);
+			}
+		}
+		long t0 = System.nanoTime();
+		gen.write(out, format);
+		System.out.println("Wrote " + out + " (" + gen.rows + "x" + gen.cols + ", " + gen.topology + ", "
+			+ format + ") in " + (System.nanoTime() - t0) / 1_000_000L + "ms");
+	}
+}
@@ -0,0 +1,221 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+// Streaming loader for both text maze formats. Bytes are decoded straight from a
+// FileChannel into MazeData's packed cells: no per-line Strings, no regex, no
+// substring/parseInt per weighted token. Lines end at "\n", "\r\n" or a lone
+// '\r' like the Scanner loader's; the Unicode separators (U+0085, U+2028,
+// U+2029) it also splits on are read as ordinary characters. Binary .mzb
+// files are handed to MazeBinary.
+public class MazeReader {
+	private static final int BUFFER_SIZE = 1 << 16;
+
+	private final FileChannel channel;
+	private final byte[] chunk;
+	private final ByteBuffer buf;
+	private int pos, limit;
+	// Last character was a '\r', so a '\n' right after it belongs to the same line ending
+	private boolean afterCr;
+
+	private MazeReader(FileChannel channel, long size) {
+		this.channel = channel;
+		this.chunk = new byte[(int) Math.min(BUFFER_SIZE, size)];
+		this.buf = ByteBuffer.wrap(chunk);
+	}
+
+	// Entry point for every maze file: binary .mzb files are detected by their
+	// magic number, anything else goes through the text autodetection below
+	public static MazeData read(String fileName) {
+		if (MazeBinary.isBinary(fileName)) {
+			return MazeBinary.read(fileName);
+		}
+		try (FileChannel ch = FileChannel.open(Paths.get(fileName), StandardOpenOption.READ)) {
+			if (ch.size() == 0) {
+				throw new IllegalArgumentException("Maze file is empty: " + fileName);
+			}
+			MazeReader reader = new MazeReader(ch, ch.size());
+			int[] header = reader.readHeader();
+			if (header != null) {
+				return reader.readLegacy(header[0], header[1]);
+			}
+			reader.rewind();
+			return reader.readWeighted();
+		} catch (Exception e) {
+			throw new RuntimeException("Failed to load maze file: " + fileName, e);
+		}
+	}
+
+	// Next byte of the file, or -1 at end of file
+	private int next() throws IOException {
+		if (pos == limit) {
+			buf.clear();
+			int n;
+			do {
+				n = channel.read(buf);
+			} while (n == 0);
+			if (n < 0) return -1;
+			pos = 0;
+			limit = n;
+		}
+		return chunk[pos++] & 0xFF;
+	}
+
+	// Next character with every line ending folded into one '\n': "\r\n", a lone
+	// '\r' and '\n' all end a line, as they do for Scanner.nextLine
+	private int nextChar() throws IOException {
+		int c = next();
+		if (afterCr) {
+			afterCr = false;
+			if (c == '\n') c = next();
+		}
+		if (c == '\r') {
+			afterCr = true;
+			return '\n';
+		}
+		return c;
+	}
+
+	private void rewind() throws IOException {
+		channel.position(0);
+		pos = limit = 0;
+		afterCr = false;
+	}
+
+	private static boolean isBlank(int c) {
+		return c == ' ' || c == '\t' || c == 0x0B || c == '\f';
+	}
+
+	// Consume the first line; returns {N, M} when it is an old-format "N M" header
+	private int[] readHeader() throws IOException {
+		long[] nums = new long[2];
+		int count = 0;
+		boolean inNumber = false;
+		boolean valid = true;
+		int c;
+		while ((c = nextChar()) != -1 && c != '\n') {
+			if (c >= '0' && c <= '9') {
+				if (!inNumber) {
+					if (count == 2) valid = false;
+					inNumber = true;
+					count++;
+				}
+				if (valid) {
+					nums[count - 1] = nums[count - 1] * 10 + (c - '0');
+					if (nums[count - 1] > Integer.MAX_VALUE) valid = false;
+				}
+			} else if (isBlank(c)) {
+				inNumber = false;
+			} else {
+				valid = false;
+			}
+		}
+		if (!valid || count != 2) return null;
+		return new int[] { (int) nums[0], (int) nums[1] };
+	}
+
+	// Old format: N rows of raw characters, anything but ' ' is a wall
+	private MazeData readLegacy(int n, int m) throws IOException {
+		MazeData data = new MazeData(n, m);
+		for (int i = 0; i < n; i++) {
+			int col = 0;
+			int c;
+			while ((c = nextChar()) != -1 && c != '\n') {
+				if (col < m) data.setCell(i * m + col, c != MazeData.ROAD, -1);
+				col++;
+			}
+			if (col < m) {
+				throw new IllegalArgumentException("Row " + i + " has " + col + " of " + m + " cells");
+			}
+		}
+		data.initLegacyDefaults();
+		return data;
+	}
+
+	// Weighted format: rows of '#', 'S', 'G' and "n" tokens. A first sweep only
+	// counts rows and the first row's cells, so the grid is allocated exactly once.
+	private MazeData readWeighted() throws IOException {
+		int rows = 0;
+		int cols = 0;
+		boolean inQuote = false;
+		int last = -1;
+		int c;
+		while ((c = nextChar()) != -1) {
+			if (c == '\n') {
+				if (rows == 0 && inQuote) cols++;
+				inQuote = false;
+				rows++;
+			} else if (rows == 0) {
+				if (inQuote) {
+					if (c == '"') { inQuote = false; cols++; }
+				} else if (c == '#' || c == 'S' || c == 'G') {
+					cols++;
+				} else if (c == '"') {
+					inQuote = true;
+				}
+			}
+			last = c;
+		}
+		if (last != '\n') {
+			if (rows == 0 && inQuote) cols++;
+			rows++;
+		}
+
+		rewind();
+		MazeData data = new MazeData(rows, cols);
+		int row = 0, col = 0;
+		while ((c = nextChar()) != -1) {
+			if (c == '\n') {
+				row++;
+				col = 0;
+				continue;
+			}
+			if (col >= cols) continue;
+			int cell = row * cols + col;
+			if (c == '#') {
+				data.setCell(cell, true, -1);
+				col++;
+			} else if (c == 'S') {
+				data.setCell(cell, false, 1);
+				data.setEntrance(row, col);
+				col++;
+			} else if (c == 'G') {
+				data.setCell(cell, false, 1);
+				data.setExit(row, col);
+				col++;
+			} else if (c == '"') {
+				// Same acceptance as Integer.parseInt; anything else falls back to 1
+				long value = 0;
+				int digits = 0;
+				boolean negative = false;
+				boolean valid = true;
+				boolean first = true;
+				while ((c = nextChar()) != -1 && c != '"' && c != '\n') {
+					if (c >= '0' && c <= '9') {
+						value = value * 10 + (c - '0');
+						if (value > (long) Integer.MAX_VALUE + 1) valid = false;
+						digits++;
+					} else if (first && (c == '-' || c == '+')) {
+						negative = (c == '-');
+					} else {
+						valid = false;
+					}
+					first = false;
+				}
+				if (negative) value = -value;
+				if (digits == 0 || value > Integer.MAX_VALUE || value < Integer.MIN_VALUE) valid = false;
+				data.setCell(cell, false, valid ? (int) value : 1);
+				col++;
+				if (c == '\n') {
+					row++;
+					col = 0;
+				}
+			}
+		}
+		return data;
+	}
+}
@@ -0,0 +1,50 @@
+package th.ac.kmutt.cpe.algorithm.maze.structure;
+
+// Read-only view of a maze grid as the solvers see it. Cells are addressed by
+// row-major ids (x * M + y); neighbor() follows MazeData.DIRECTIONS.
+public interface MazeView {
+	int N();
+
+	int M();
+
+	int cellCount();
+
+	int index(int x, int y);
+
+	int cellX(int cell);
+
+	int cellY(int cell);
+
+	boolean inArea(int x, int y);
+
+	// Neighbouring cell id in DIRECTIONS[dir], or -1 when it falls outside the grid
+	int neighbor(int cell, int dir);
+
+	boolean isRoad(int cell);
+
+	int getWeight(int cell);
+
+	// Cost of entering a road cell; non-positive weights count as 1
+	int stepCost(int cell);
+
+	// Smallest stepCost of any road cell (at least 1)
+	int minStepCost();
+
+	// Largest stepCost of any road cell (at least 1)
+	int maxStepCost();
+
+	// Every road has the same stepCost
+	boolean hasUniformWeights();
+
+	int getEntrance();
+
+	int getExit();
+
+	int getEntranceX();
+
+	int getEntranceY();
+
+	int getExitX();
+
+	int getExitY();
+}
@@ -0,0 +1,80 @@
+package th.ac.kmutt.cpe.algorithm.maze.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import javax.swing.Timer;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+
+// Replays a finished GA run's recorded candidates on a Swing Timer: one cell
+// per tick at the speed slider's delay, or a whole candidate per frame with the
+// slider at 0, then puts the final route back. Event thread only.
+public class CandidateReplay {
+    private static final int FRAME_MS = 16;
+
+    private final MazeFrame frame;
+    private final MazeData data;
+    private final List<int[]> candidates;
+    private final int[] result;
+    private final Timer timer;
+    private int candidate, cell;
+
+    public CandidateReplay(MazeFrame frame, MazeData data, List<int[]> candidates, int[] result) {
+        this.frame = frame;
+        this.data = data;
+        this.candidates = new ArrayList<>(candidates);
+        this.result = result;
+        this.timer = new Timer(FRAME_MS, e -> advance());
+    }
+
+    public void start() {
+        timer.stop();
+        candidate = 0;
+        cell = 0;
+        data.clearMarks();
+        frame.render(data);
+        timer.setDelay(delay());
+        timer.start();
+    }
+
+    public void stop() {
+        timer.stop();
+    }
+
+    public boolean isRunning() {
+        return timer.isRunning();
+    }
+
+    private void advance() {
+        if (candidate >= candidates.size()) {
+            timer.stop();
+            data.clearMarks();
+            if (result != null) {
+                for (int c : result) data.setResult(c, true);
+            }
+            frame.render(data);
+            return;
+        }
+        int[] path = candidates.get(candidate);
+        if (cell == 0 && candidate > 0) {
+            for (int c : candidates.get(candidate - 1)) {
+                data.setPath(c, false);
+                frame.renderCell(c);
+            }
+        }
+        int end = frame.getDelayMs() > 0 ? cell + 1 : path.length;
+        for (; cell < end; cell++) {
+            data.setPath(path[cell], true);
+            frame.renderCell(path[cell]);
+        }
+        if (cell >= path.length) {
+            candidate++;
+            cell = 0;
+        }
+        timer.setDelay(delay());
+    }
+
+    private int delay() {
+        int delay = frame.getDelayMs();
+        return delay > 0 ? delay : FRAME_MS;
+    }
+}
@@ -1,7 +1,6 @@
 package th.ac.kmutt.cpe.algorithm.maze.ui;
 
 import java.awt.BorderLayout;
-import java.awt.Color;
 import java.awt.Dimension;
 import java.awt.Graphics;
 import java.awt.event.ActionEvent;
@@ -15,6 +14,7 @@ import javax.swing.JLabel;
 import javax.swing.JPanel;
 import javax.swing.JSlider;
 import javax.swing.WindowConstants;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveMetrics;
 import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
 
 public class MazeFrame  extends JFrame{
@@ -23,11 +23,18 @@ public class MazeFrame  extends JFrame{
     private int canvasHeight;
     
     private MazeData data;
+    // Cached maze image and dirty cells, flushed by repaintTimer
+    private final MazeRenderer renderer = new MazeRenderer();
+    private javax.swing.Timer repaintTimer;
 
     // Controls
     private JComboBox<String> algorithmBox;
     private JButton runButton;
     private JButton resetButton;
+    private JButton raceButton;
+    private JButton replayButton;
+    // Last GA run's candidates, replayable after the run
+    private CandidateReplay replay;
     private JSlider speedSlider;
     private JButton importButton;
     private ControlListener controlListener;
@@ -37,13 +44,22 @@ public class MazeFrame  extends JFrame{
     private javax.swing.JSpinner gaMutationSpinner;
     private javax.swing.JSpinner gaGoalBiasSpinner;
     private javax.swing.JSpinner gaElitismSpinner;
+    private JComboBox<String> gaSelectionBox;
+    private javax.swing.JSpinner gaIslandsSpinner;
+    private javax.swing.JSpinner gaMigrationSpinner;
+    // Wall-clock budget per solve in ms, 0 for none; the anytime engines' deadline
+    private javax.swing.JSpinner budgetSpinner;
     // Metrics labels
     private JLabel costLabel;
     private JLabel stepsLabel;
     private JLabel visitedLabel;
     private JLabel timeLabel;
+    // Frontier and resource counters of the last finished solve
+    private JLabel detailLabel;
     // Maze file label
     private JLabel mazeFileLabel;
+    // Race results, one row per finished algorithm
+    private javax.swing.table.DefaultTableModel raceModel;
     // removed Route Weight label per request
     
     public MazeFrame(String title, int canvasWidth, int canvasHeight) {
@@ -56,6 +72,7 @@ public class MazeFrame  extends JFrame{
         JPanel root = new JPanel(new BorderLayout());
         root.add(buildControlPanel(), BorderLayout.NORTH);
         root.add(canvas, BorderLayout.CENTER);
+        root.add(buildRacePanel(), BorderLayout.EAST);
         this.setContentPane(root);
 
         // keep a reference for resizing
@@ -65,20 +82,114 @@ public class MazeFrame  extends JFrame{
         this.setResizable(true);
         this.setDefaultCloseOperation(WindowConstants.EXIT_ON_CLOSE);
         this.setVisible(true);
+
+        repaintTimer = new javax.swing.Timer(Math.max(1, 1000 / refreshRate()), e -> flushRepaint());
+        repaintTimer.start();
     }
     
+    // Everything about data may have changed (marks cleared, new maze); shown
+    // on the next repaint tick
     public void render(MazeData data) {
         this.data = data;
-        repaint();
+        renderer.setMaze(data);
+    }
+
+    // Only this cell's marks changed
+    public void renderCell(int cell) {
+        renderer.markDirty(cell);
+    }
+
+    // Repaints at most once per display refresh, and only the changed cells
+    private void flushRepaint() {
+        renderer.setSize(canvasRef.getWidth(), canvasRef.getHeight());
+        java.awt.Rectangle changed = renderer.update();
+        if (changed != null) canvasRef.repaint(changed);
+    }
+
+    private static int refreshRate() {
+        try {
+            int hz = java.awt.GraphicsEnvironment.getLocalGraphicsEnvironment()
+                .getDefaultScreenDevice().getDisplayMode().getRefreshRate();
+            if (hz != java.awt.DisplayMode.REFRESH_RATE_UNKNOWN && hz > 0) return hz;
+        } catch (RuntimeException ignored) {}
+        return 60;
     }
 
     public void setControlListener(ControlListener listener) {
         this.controlListener = listener;
     }
 
+    // Replace the algorithm choices, keeping the current selection when still offered
+    public void setAlgorithms(java.util.List<String> names) {
+        if (algorithmBox == null) return;
+        Object selected = algorithmBox.getSelectedItem();
+        algorithmBox.setModel(new javax.swing.DefaultComboBoxModel<>(names.toArray(new String[0])));
+        if (selected != null && names.contains(selected)) algorithmBox.setSelectedItem(selected);
+    }
+
     public void setControlsEnabled(boolean enabled) {
         if (algorithmBox != null) algorithmBox.setEnabled(enabled);
         if (runButton != null) runButton.setEnabled(enabled);
+        if (raceButton != null) raceButton.setEnabled(enabled);
+        if (replayButton != null) replayButton.setEnabled(enabled && replay != null);
+    }
+
+    // Offer a replay of the last GA run, or withdraw it with null; stops any
+    // replay in progress. Safe to call from worker threads.
+    public void setReplay(CandidateReplay next) {
+        javax.swing.SwingUtilities.invokeLater(() -> {
+            if (replay != null) replay.stop();
+            replay = next;
+            if (replayButton != null) replayButton.setEnabled(next != null && runButton.isEnabled());
+        });
+    }
+
+    private JPanel buildRacePanel() {
+        raceModel = new javax.swing.table.DefaultTableModel(
+            new Object[]{"Algorithm", "Cost", "Steps", "Visited", "ms"}, 0) {
+            @Override
+            public boolean isCellEditable(int row, int column) {
+                return false;
+            }
+        };
+        javax.swing.JTable table = new javax.swing.JTable(raceModel);
+        javax.swing.JScrollPane scroll = new javax.swing.JScrollPane(table);
+        scroll.setPreferredSize(new Dimension(320, 160));
+        JPanel panel = new JPanel(new BorderLayout());
+        panel.add(new JLabel("Race results"), BorderLayout.NORTH);
+        panel.add(scroll, BorderLayout.CENTER);
+        return panel;
+    }
+
+    // Ask which algorithms to race; all but PureGA (unbounded) are preselected
+    private java.util.List<String> chooseRaceAlgorithms() {
+        JPanel boxes = new JPanel(new java.awt.GridLayout(0, 1));
+        java.util.List<javax.swing.JCheckBox> checks = new java.util.ArrayList<>();
+        for (int i = 0; i < algorithmBox.getItemCount(); i++) {
+            String name = algorithmBox.getItemAt(i);
+            javax.swing.JCheckBox box = new javax.swing.JCheckBox(name, !"PureGA".equals(name));
+            checks.add(box);
+            boxes.add(box);
+        }
+        int res = javax.swing.JOptionPane.showConfirmDialog(this, boxes, "Race algorithms",
+            javax.swing.JOptionPane.OK_CANCEL_OPTION, javax.swing.JOptionPane.PLAIN_MESSAGE);
+        java.util.List<String> chosen = new java.util.ArrayList<>();
+        if (res != javax.swing.JOptionPane.OK_OPTION) return chosen;
+        for (javax.swing.JCheckBox box : checks) {
+            if (box.isSelected()) chosen.add(box.getText());
+        }
+        return chosen;
+    }
+
+    public void clearRaceResults() {
+        javax.swing.SwingUtilities.invokeLater(() -> raceModel.setRowCount(0));
+    }
+
+    // Safe to call from worker threads; rows appear in finishing order
+    public void addRaceResult(String algoName, Integer cost, Integer steps, Integer visited, Long timeMs) {
+        javax.swing.SwingUtilities.invokeLater(() -> raceModel.addRow(new Object[]{
+            algoName, cost != null ? cost : "-", steps != null ? steps : "-",
+            visited != null ? visited : "-", timeMs != null ? timeMs : "-"}));
     }
 
     private JPanel buildControlPanel() {
@@ -115,6 +226,26 @@ public class MazeFrame  extends JFrame{
             }
         });
         panel.add(runButton);
+        raceButton = new JButton("Race...");
+        raceButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (controlListener != null) {
+                    java.util.List<String> chosen = chooseRaceAlgorithms();
+                    if (!chosen.isEmpty()) controlListener.onRaceRequested(chosen);
+                }
+            }
+        });
+        panel.add(raceButton);
+        replayButton = new JButton("Replay GA");
+        replayButton.setEnabled(false);
+        replayButton.addActionListener(new ActionListener() {
+            @Override
+            public void actionPerformed(ActionEvent e) {
+                if (replay != null) replay.start();
+            }
+        });
+        panel.add(replayButton);
         resetButton = new JButton("Reset");
         resetButton.addActionListener(new ActionListener() {
             @Override
@@ -158,12 +289,31 @@ public class MazeFrame  extends JFrame{
         panel.add(new JLabel("GA Elitism Count:"));
         gaElitismSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(14, 1, 10000, 1));
         panel.add(gaElitismSpinner);
+
+        panel.add(new JLabel("GA Selection:"));
+        gaSelectionBox = new JComboBox<>(new String[]{"Truncation", "Tournament"});
+        panel.add(gaSelectionBox);
+
+        panel.add(new JLabel("GA Islands:"));
+        gaIslandsSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(1, 1, 64, 1));
+        panel.add(gaIslandsSpinner);
+
+        panel.add(new JLabel("GA Migrate Every:"));
+        gaMigrationSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(20, 1, 10000, 1));
+        panel.add(gaMigrationSpinner);
+
+        panel.add(new JLabel("Budget ms:"));
+        budgetSpinner = new javax.swing.JSpinner(new javax.swing.SpinnerNumberModel(0, 0, 3_600_000, 100));
+        budgetSpinner.setToolTipText("Time limit per solve (0 = none); ARA* and Anytime GA improve their route until it runs out");
+        panel.add(budgetSpinner);
         visitedLabel = new JLabel("Visited: -");
         timeLabel = new JLabel("Time: -ms");
+        detailLabel = new JLabel("Expanded: -");
         panel.add(costLabel);
         panel.add(stepsLabel);
         panel.add(visitedLabel);
         panel.add(timeLabel);
+        panel.add(detailLabel);
         return panel;
     }
 
@@ -208,6 +358,29 @@ public class MazeFrame  extends JFrame{
         return (v instanceof Number) ? ((Number)v).intValue() : 14;
     }
 
+    // Parents by tournament instead of uniformly from the best 20
+    public boolean isGaTournamentSelection() {
+        return gaSelectionBox != null && "Tournament".equals(gaSelectionBox.getSelectedItem());
+    }
+
+    // Populations evolved side by side; 1 = a single population
+    public int getGaIslands() {
+        Object v = gaIslandsSpinner != null ? gaIslandsSpinner.getValue() : 1;
+        return (v instanceof Number) ? ((Number)v).intValue() : 1;
+    }
+
+    // Generations between elite migrations across islands
+    public int getGaMigrationInterval() {
+        Object v = gaMigrationSpinner != null ? gaMigrationSpinner.getValue() : 20;
+        return (v instanceof Number) ? ((Number)v).intValue() : 20;
+    }
+
+    // Time budget of one solve in ms, 0 for none
+    public long getTimeBudgetMs() {
+        Object v = budgetSpinner != null ? budgetSpinner.getValue() : 0;
+        return (v instanceof Number) ? ((Number)v).longValue() : 0;
+    }
+
     // Reset GA parameter controls to their default values
     public void resetGaParametersToDefaults() {
         if (gaPopSpinner != null) gaPopSpinner.setValue(140);
@@ -215,52 +388,54 @@ public class MazeFrame  extends JFrame{
         if (gaMutationSpinner != null) gaMutationSpinner.setValue(5.0);
         if (gaGoalBiasSpinner != null) gaGoalBiasSpinner.setValue(80.0);
         if (gaElitismSpinner != null) gaElitismSpinner.setValue(14);
+        if (gaSelectionBox != null) gaSelectionBox.setSelectedIndex(0);
+        if (gaIslandsSpinner != null) gaIslandsSpinner.setValue(1);
+        if (gaMigrationSpinner != null) gaMigrationSpinner.setValue(20);
+        if (budgetSpinner != null) budgetSpinner.setValue(0);
     }
     
-    public void paint(MazeUtil util) {
-        int cw = (canvasRef != null ? canvasRef.getWidth() : canvasWidth);
-        int ch = (canvasRef != null ? canvasRef.getHeight() : canvasHeight);
-        int w = cw / Math.max(1, data.M());
-        int h = ch / Math.max(1, data.N());
-        for(int i = 0; i < data.N(); i++) {
-            for(int j = 0; j < data.M(); j++) {
-                if(data.getMazeChar(i, j) == MazeData.WALL) {
-                    util.setColor(MazeUtil.LightBlue);
-                }else {
-                    util.setColor(MazeUtil.White);
-                }
-                if(data.path[i][j]) {
-                    util.setColor(MazeUtil.Yellow);
+    // Wheel zooms around the pointer, dragging pans, double-click fits the maze
+    private class MazeCanvas extends JPanel{
+        private java.awt.Point dragFrom;
+
+        MazeCanvas() {
+            addMouseWheelListener(e -> {
+                renderer.zoomAt(Math.pow(1.25, -e.getPreciseWheelRotation()), e.getX(), e.getY());
+                flushRepaint();
+            });
+            java.awt.event.MouseAdapter mouse = new java.awt.event.MouseAdapter() {
+                @Override
+                public void mousePressed(java.awt.event.MouseEvent e) {
+                    dragFrom = e.getPoint();
                 }
-                if(data.result[i][j]) {
-                    util.setColor(MazeUtil.Red);
+
+                @Override
+                public void mouseDragged(java.awt.event.MouseEvent e) {
+                    if (dragFrom == null) return;
+                    renderer.panBy(e.getX() - dragFrom.x, e.getY() - dragFrom.y);
+                    dragFrom = e.getPoint();
+                    flushRepaint();
                 }
-                util.fillRectangle(j * w, i * h, w, h);
-
-                // Draw S/G for start/goal; else draw weight for road cells
-                // row index i corresponds to Y; column index j corresponds to X
-                if (i == data.getEntranceY() && j == data.getEntranceX()) {
-                    util.setColor(Color.BLACK);
-                    util.drawCenteredString("S", j * w, i * h, w, h);
-                } else if (i == data.getExitY() && j == data.getExitX()) {
-                    util.setColor(Color.BLACK);
-                    util.drawCenteredString("G", j * w, i * h, w, h);
-                } else if (data.getMazeChar(i, j) == MazeData.ROAD && data.weight != null && data.weight[i][j] > 0) {
-                    util.setColor(Color.BLACK);
-                    util.drawCenteredString(Integer.toString(data.weight[i][j]), j * w, i * h, w, h);
+
+                @Override
+                public void mouseClicked(java.awt.event.MouseEvent e) {
+                    if (e.getClickCount() == 2) {
+                        renderer.fit();
+                        flushRepaint();
+                    }
                 }
-            }
+            };
+            addMouseListener(mouse);
+            addMouseMotionListener(mouse);
         }
-    }
-    
-    private class MazeCanvas extends JPanel{
 
         @Override
         protected void paintComponent(Graphics g) {
             super.paintComponent(g);
-            MazeUtil util = MazeUtil.getInstance(g);
             if(data != null) {
-                MazeFrame.this.paint(util);
+                renderer.setSize(getWidth(), getHeight());
+                renderer.update();
+                renderer.paint(g);
             }
         }
 
@@ -275,6 +450,7 @@ public class MazeFrame  extends JFrame{
 
     public static interface ControlListener {
         void onRunRequested(String algorithmName);
+        void onRaceRequested(java.util.List<String> algorithmNames);
         void onResetRequested();
         void onImportRequested(String filePath);
     }
@@ -294,6 +470,32 @@ public class MazeFrame  extends JFrame{
         if (timeLabel != null) timeLabel.setText("Time: " + (timeMs != null ? timeMs : "-") + "ms");
     }
 
+    // Best route so far of an anytime solve, at most bound times the optimum
+    public void updateImprovement(int cost, int steps, double bound) {
+        if (costLabel != null) costLabel.setText("Cost: " + cost);
+        if (stepsLabel != null) stepsLabel.setText("Steps: " + steps);
+        if (detailLabel != null) detailLabel.setText(String.format("Bound: %.3fx", bound));
+    }
+
+    public void updateSolveMetrics(SolveMetrics m) {
+        if (detailLabel == null) return;
+        if (m == null) {
+            detailLabel.setText("Expanded: -");
+            detailLabel.setToolTipText(null);
+            return;
+        }
+        StringBuilder text = new StringBuilder("Expanded: ").append(m.expanded);
+        if (m.peakFrontier > 0) text.append("  Peak: ").append(m.peakFrontier);
+        if (!m.generations().isEmpty()) text.append("  Gens: ").append(m.generations().size());
+        if (m.cpuNanos >= 0) text.append("  CPU: ").append(m.cpuNanos / 1_000_000L).append("ms");
+        if (m.allocatedBytes >= 0) text.append(String.format("  Alloc: %.1fMB", m.allocatedBytes / 1048576.0));
+        if (!Double.isNaN(m.bound)) text.append(String.format("  Bound: %.3fx", m.bound));
+        if (m.cancelled) text.append("  (stopped)");
+        detailLabel.setText(text.toString());
+        detailLabel.setToolTipText("pushes " + m.pushes + ", decrease-keys " + m.decreaseKeys
+            + ", pops " + m.pops + ", stale pops " + m.stalePops);
+    }
+
     public int getBlockSize() {
         int cols = (data != null ? data.M() : 1);
         int cw = (canvasRef != null ? canvasRef.getWidth() : canvasWidth);
@@ -0,0 +1,377 @@
+package th.ac.kmutt.cpe.algorithm.maze.ui;
+
+import java.awt.Color;
+import java.awt.Graphics;
+import java.awt.Graphics2D;
+import java.awt.Rectangle;
+import java.awt.image.BufferedImage;
+import java.awt.image.DataBufferInt;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+
+// Incremental maze painter with a zoomable, pannable viewport, independent of
+// any window. Two canvas-sized images are kept:
+//  - base: walls, roads, weight labels and S/G of the visible cells, redrawn
+//    when the maze or the viewport changes
+//  - view: base plus the path/result marks, which is what gets shown
+// Mark changes are reported as dirty cells; update() redraws only those cells
+// in the view (unmarked cells are copied back from base) and returns the
+// pixel bounds to repaint. A full refresh, after clearing marks for example,
+// copies base over the view and redraws the marked visible cells.
+// Only cells inside the viewport are ever drawn. Once cells get smaller than
+// DETAIL_MIN pixels the view is instead scaled from an overview bitmap with one
+// pixel per block of cells (walls blended by fraction, marks on top), built
+// once per maze and patched block by block from dirty cells. Weight labels are
+// skipped below LABEL_MIN pixels per cell.
+// markDirty/markAllDirty/setMaze/setSize may be called from any thread;
+// update, paint and the viewport methods belong to the painting thread.
+public class MazeRenderer {
+    // Past this many pending cells a full refresh is cheaper
+    private static final int MAX_DIRTY = 1 << 16;
+    private static final double DETAIL_MIN = 3.0;
+    private static final double LABEL_MIN = 12.0;
+    private static final double ZOOM_MAX_CELL = 160.0;
+    // Longest side of the overview bitmap
+    private static final int OVERVIEW_MAX = 2048;
+
+    private MazeData data;
+    private int width, height;
+
+    private final Object lock = new Object();
+    private int[] dirty = new int[256];
+    private int dirtyCount;
+    private boolean allDirty = true;
+
+    // Painting thread only
+    private MazeData drawnData;
+    private int viewW, viewH;
+    private BufferedImage base, view;
+    private double zoom = 1.0, offX, offY;
+    private boolean fitted = true;
+    private boolean viewportChanged = true;
+    private double sx, sy;
+    private BufferedImage overview;
+    private int[] overviewPixels;
+    private int block;
+
+    public void setMaze(MazeData data) {
+        synchronized (lock) {
+            this.data = data;
+            allDirty = true;
+        }
+    }
+
+    // Canvas size in pixels
+    public void setSize(int width, int height) {
+        synchronized (lock) {
+            if (width == this.width && height == this.height) return;
+            this.width = width;
+            this.height = height;
+            allDirty = true;
+        }
+    }
+
+    public void markDirty(int cell) {
+        synchronized (lock) {
+            if (allDirty) return;
+            if (dirtyCount == dirty.length) {
+                if (dirtyCount >= MAX_DIRTY) {
+                    allDirty = true;
+                    dirtyCount = 0;
+                    return;
+                }
+                dirty = java.util.Arrays.copyOf(dirty, dirtyCount * 2);
+            }
+            dirty[dirtyCount++] = cell;
+        }
+    }
+
+    public void markAllDirty() {
+        synchronized (lock) {
+            allDirty = true;
+            dirtyCount = 0;
+        }
+    }
+
+    // Scale by factor around canvas point (px, py), which keeps showing the same spot
+    public void zoomAt(double factor, int px, int py) {
+        if (drawnData == null) return;
+        double fx = fitScale(viewW, drawnData.M()), fy = fitScale(viewH, drawnData.N());
+        double max = Math.max(1.0, ZOOM_MAX_CELL / Math.min(fx, fy));
+        double next = Math.max(1.0, Math.min(max, zoom * factor));
+        if (next == zoom) return;
+        double mx = (px - offX) / (fx * zoom), my = (py - offY) / (fy * zoom);
+        zoom = next;
+        offX = px - mx * fx * zoom;
+        offY = py - my * fy * zoom;
+        fitted = next == 1.0;
+        if (fitted) offX = offY = 0;
+        viewportChanged = true;
+    }
+
+    public void panBy(int dx, int dy) {
+        if (fitted && zoom == 1.0) return;
+        offX += dx;
+        offY += dy;
+        viewportChanged = true;
+    }
+
+    // Back to the whole maze in the canvas
+    public void fit() {
+        zoom = 1.0;
+        offX = offY = 0;
+        fitted = true;
+        viewportChanged = true;
+    }
+
+    // Bring the view up to date; returns the changed pixel bounds, or null
+    public Rectangle update() {
+        MazeData maze;
+        boolean full;
+        int[] cells;
+        int count, w, h;
+        synchronized (lock) {
+            maze = data;
+            full = allDirty;
+            count = dirtyCount;
+            cells = count > 0 ? java.util.Arrays.copyOf(dirty, count) : null;
+            w = width;
+            h = height;
+            allDirty = false;
+            dirtyCount = 0;
+        }
+        if (maze == null || w <= 0 || h <= 0) return null;
+        if (maze != drawnData) {
+            drawnData = maze;
+            overview = null;
+            fit();
+        }
+        if (w != viewW || h != viewH || view == null) {
+            viewW = w;
+            viewH = h;
+            base = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            view = new BufferedImage(w, h, BufferedImage.TYPE_INT_ARGB);
+            viewportChanged = true;
+        }
+        if (!full && count == 0 && !viewportChanged) return null;
+
+        sx = fitScale(w, maze.M()) * zoom;
+        sy = fitScale(h, maze.N()) * zoom;
+        clampPan(maze);
+        boolean detail = Math.min(sx, sy) >= DETAIL_MIN;
+        Rectangle all = new Rectangle(0, 0, w, h);
+        if (!detail) {
+            if (overview == null || full) {
+                buildOverview(maze);
+            } else {
+                for (int i = 0; i < count; i++) updateBlock(maze, cells[i]);
+            }
+            drawOverview(maze);
+            viewportChanged = false;
+            return all;
+        }
+        if (full) overview = null; // rebuilt from scratch when next needed
+        else if (overview != null) {
+            for (int i = 0; i < count; i++) updateBlock(maze, cells[i]);
+        }
+        if (viewportChanged) {
+            drawBase(maze);
+            viewportChanged = false;
+            full = true;
+        }
+        Graphics2D g = view.createGraphics();
+        try {
+            MazeUtil util = MazeUtil.getInstance(g);
+            if (full) {
+                g.setComposite(java.awt.AlphaComposite.Src);
+                g.drawImage(base, 0, 0, null);
+                g.setComposite(java.awt.AlphaComposite.SrcOver);
+                int r0 = firstVisible(offY, sy), r1 = lastVisible(offY, sy, h, maze.N());
+                int c0 = firstVisible(offX, sx), c1 = lastVisible(offX, sx, w, maze.M());
+                for (int i = r0; i < r1; i++) {
+                    for (int j = c0; j < c1; j++) {
+                        int cell = maze.index(i, j);
+                        if (maze.isPath(cell) || maze.isResult(cell)) drawCell(maze, util, g, cell);
+                    }
+                }
+                return all;
+            }
+            Rectangle bounds = null;
+            for (int i = 0; i < count; i++) {
+                Rectangle r = drawCell(maze, util, g, cells[i]);
+                if (r == null) continue;
+                if (bounds == null) bounds = r; else bounds.add(r);
+            }
+            return bounds;
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // Draw the current view; call update() first to include pending changes
+    public void paint(Graphics g) {
+        if (view != null) g.drawImage(view, 0, 0, null);
+    }
+
+    // Canvas pixels per cell at zoom 1; whole pixels while cells are at least one pixel
+    private static double fitScale(int pixels, int cells) {
+        double s = pixels / (double) Math.max(1, cells);
+        return s >= 1 ? Math.floor(s) : s;
+    }
+
+    // Keep the maze from being dragged off the canvas
+    private void clampPan(MazeData maze) {
+        double mw = maze.M() * sx, mh = maze.N() * sy;
+        offX = Math.max(Math.min(0, viewW - mw), Math.min(Math.max(0, viewW - mw), offX));
+        offY = Math.max(Math.min(0, viewH - mh), Math.min(Math.max(0, viewH - mh), offY));
+    }
+
+    private static int firstVisible(double off, double scale) {
+        return Math.max(0, (int) Math.floor(-off / scale));
+    }
+
+    private static int lastVisible(double off, double scale, int pixels, int cells) {
+        return Math.min(cells, (int) Math.ceil((pixels - off) / scale));
+    }
+
+    private int px(int col) {
+        return (int) Math.floor(offX + col * sx);
+    }
+
+    private int py(int row) {
+        return (int) Math.floor(offY + row * sy);
+    }
+
+    // Static layer of the visible cells
+    private void drawBase(MazeData maze) {
+        Graphics2D g = base.createGraphics();
+        try {
+            g.setComposite(java.awt.AlphaComposite.Clear);
+            g.fillRect(0, 0, viewW, viewH);
+            g.setComposite(java.awt.AlphaComposite.SrcOver);
+            MazeUtil util = MazeUtil.getInstance(g);
+            boolean labels = Math.min(sx, sy) >= LABEL_MIN;
+            int r0 = firstVisible(offY, sy), r1 = lastVisible(offY, sy, viewH, maze.N());
+            int c0 = firstVisible(offX, sx), c1 = lastVisible(offX, sx, viewW, maze.M());
+            for (int i = r0; i < r1; i++) {
+                int y = py(i), ch = py(i + 1) - y;
+                for (int j = c0; j < c1; j++) {
+                    int cell = maze.index(i, j);
+                    int x = px(j), cw = px(j + 1) - x;
+                    util.setColor(maze.isRoad(cell) ? MazeUtil.White : MazeUtil.LightBlue);
+                    util.fillRectangle(x, y, cw, ch);
+                    if (labels) drawLabel(maze, util, g, cell, i, j, x, y, cw, ch);
+                }
+            }
+        } finally {
+            g.dispose();
+        }
+    }
+
+    // One cell of the view from its current marks; null when off-screen
+    private Rectangle drawCell(MazeData maze, MazeUtil util, Graphics2D g, int cell) {
+        int i = maze.cellX(cell), j = maze.cellY(cell);
+        int x = px(j), y = py(i);
+        int cw = px(j + 1) - x, ch = py(i + 1) - y;
+        if (x >= viewW || y >= viewH || x + cw <= 0 || y + ch <= 0) return null;
+        Color mark = maze.isResult(cell) ? MazeUtil.Red : maze.isPath(cell) ? MazeUtil.Yellow : null;
+        if (mark == null) {
+            g.setComposite(java.awt.AlphaComposite.Src);
+            g.drawImage(base, x, y, x + cw, y + ch, x, y, x + cw, y + ch, null);
+            g.setComposite(java.awt.AlphaComposite.SrcOver);
+        } else {
+            util.setColor(mark);
+            util.fillRectangle(x, y, cw, ch);
+            if (Math.min(sx, sy) >= LABEL_MIN) drawLabel(maze, util, g, cell, i, j, x, y, cw, ch);
+        }
+        return new Rectangle(x, y, cw, ch);
+    }
+
+    // S/G for start/goal; else the weight of road cells, clipped to the cell so
+    // redrawing one cell never depends on its neighbours
+    // row index i corresponds to Y; column index j corresponds to X
+    private void drawLabel(MazeData maze, MazeUtil util, Graphics2D g, int cell, int i, int j,
+                           int x, int y, int w, int h) {
+        String text = null;
+        if (i == maze.getEntranceY() && j == maze.getEntranceX()) {
+            text = "S";
+        } else if (i == maze.getExitY() && j == maze.getExitX()) {
+            text = "G";
+        } else if (maze.isRoad(cell) && maze.getWeight(cell) > 0) {
+            text = Integer.toString(maze.getWeight(cell));
+        }
+        if (text == null) return;
+        java.awt.Shape clip = g.getClip();
+        g.clipRect(x, y, w, h);
+        util.setColor(Color.BLACK);
+        util.drawCenteredString(text, x, y, w, h);
+        g.setClip(clip);
+    }
+
+    // One pixel per block x block cells, block a power of two
+    private void buildOverview(MazeData maze) {
+        block = 1;
+        while ((maze.N() + block - 1) / block > OVERVIEW_MAX || (maze.M() + block - 1) / block > OVERVIEW_MAX) {
+            block <<= 1;
+        }
+        int ow = (maze.M() + block - 1) / block, oh = (maze.N() + block - 1) / block;
+        if (overview == null || overview.getWidth() != ow || overview.getHeight() != oh) {
+            overview = new BufferedImage(ow, oh, BufferedImage.TYPE_INT_RGB);
+            overviewPixels = ((DataBufferInt) overview.getRaster().getDataBuffer()).getData();
+        }
+        for (int bi = 0; bi < oh; bi++) {
+            for (int bj = 0; bj < ow; bj++) overviewPixels[bi * ow + bj] = blockColor(maze, bi, bj);
+        }
+    }
+
+    private void updateBlock(MazeData maze, int cell) {
+        int bi = maze.cellX(cell) / block, bj = maze.cellY(cell) / block;
+        overviewPixels[bi * overview.getWidth() + bj] = blockColor(maze, bi, bj);
+    }
+
+    // Result or path if any cell in the block has it, else walls blended by fraction
+    private int blockColor(MazeData maze, int bi, int bj) {
+        int i1 = Math.min(maze.N(), (bi + 1) * block), j1 = Math.min(maze.M(), (bj + 1) * block);
+        int walls = 0, cells = 0;
+        boolean path = false;
+        for (int i = bi * block; i < i1; i++) {
+            for (int j = bj * block; j < j1; j++) {
+                int cell = maze.index(i, j);
+                if (maze.isResult(cell)) return MazeUtil.Red.getRGB();
+                path |= maze.isPath(cell);
+                if (!maze.isRoad(cell)) walls++;
+                cells++;
+            }
+        }
+        if (path) return MazeUtil.Yellow.getRGB();
+        return blend(MazeUtil.White.getRGB(), MazeUtil.LightBlue.getRGB(), walls / (double) cells);
+    }
+
+    private static int blend(int a, int b, double t) {
+        int r = (int) Math.round(((a >> 16) & 0xFF) * (1 - t) + ((b >> 16) & 0xFF) * t);
+        int g = (int) Math.round(((a >> 8) & 0xFF) * (1 - t) + ((b >> 8) & 0xFF) * t);
+        int bl = (int) Math.round((a & 0xFF) * (1 - t) + (b & 0xFF) * t);
+        return (r << 16) | (g << 8) | bl;
+    }
+
+    // View scaled from the overview bitmap, cropped to the viewport
+    private void drawOverview(MazeData maze) {
+        Graphics2D g = view.createGraphics();
+        try {
+            g.setComposite(java.awt.AlphaComposite.Clear);
+            g.fillRect(0, 0, viewW, viewH);
+            g.setComposite(java.awt.AlphaComposite.SrcOver);
+            int ow = overview.getWidth(), oh = overview.getHeight();
+            // visible blocks only, so the scaled copy never covers off-screen area
+            int b0 = Math.max(0, (int) Math.floor(-offY / (sy * block)));
+            int b1 = Math.min(oh, (int) Math.ceil((viewH - offY) / (sy * block)));
+            int a0 = Math.max(0, (int) Math.floor(-offX / (sx * block)));
+            int a1 = Math.min(ow, (int) Math.ceil((viewW - offX) / (sx * block)));
+            if (b1 <= b0 || a1 <= a0) return;
+            g.drawImage(overview,
+                px(a0 * block), py(b0 * block), px(a1 * block), py(b1 * block),
+                a0, b0, a1, b1, null);
+        } finally {
+            g.dispose();
+        }
+    }
+}
@@ -15,6 +15,9 @@ public class MazeUtil {
 	public static final Color White = new Color(0xFFFFFF);
 	
 	private Graphics2D g2d;
+	// Label font and metrics, rederived only when the size changes
+	private Font labelFont;
+	private FontMetrics labelMetrics;
 
 	private MazeUtil(Graphics2D g2d) {
 		this.g2d = g2d;
@@ -24,12 +27,14 @@ public class MazeUtil {
 		return new MazeUtil((Graphics2D) g);
 	}
 	
+	// Returns early when interrupted, with the interrupt flag kept set so the
+	// caller (and every later pause) sees it
 	public static void pause(long time) {
 		try {
 			Thread.sleep(time);
-		}catch (InterruptedException e) {
-            e.printStackTrace();
-        }
+		} catch (InterruptedException e) {
+			Thread.currentThread().interrupt();
+		}
 	}
 	
 	public void setColor(Color color) {
@@ -45,9 +50,13 @@ public class MazeUtil {
 		if (text == null) return;
 		int baseSize = Math.min(w, h);
 		float fontSize = Math.max(10f, baseSize * 0.5f);
-		Font font = g2d.getFont().deriveFont(Font.PLAIN, fontSize);
+		if (labelFont == null || labelFont.getSize2D() != fontSize) {
+			labelFont = g2d.getFont().deriveFont(Font.PLAIN, fontSize);
+			labelMetrics = g2d.getFontMetrics(labelFont);
+		}
+		Font font = labelFont;
 		g2d.setFont(font);
-		FontMetrics fm = g2d.getFontMetrics(font);
+		FontMetrics fm = labelMetrics;
 		int tx = x + (w - fm.stringWidth(text)) / 2;
 		int ty = y + (h - fm.getHeight()) / 2 + fm.getAscent();
 		g2d.drawString(text, tx, ty);
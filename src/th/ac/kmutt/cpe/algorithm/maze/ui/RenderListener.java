@@ -0,0 +1,181 @@
+package th.ac.kmutt.cpe.algorithm.maze.ui;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReference;
+import javax.swing.SwingUtilities;
+import javax.swing.Timer;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveListener;
+import th.ac.kmutt.cpe.algorithm.maze.method.SolveResult;
+import th.ac.kmutt.cpe.algorithm.maze.structure.MazeData;
+
+// Bridges solver progress into the frame. Visited cells are marked on the
+// shared MazeData and reported to the frame as single dirty cells, which it
+// repaints at most once per display refresh; a slider delay above 0 paces
+// the solver so each visit can be seen.
+// Candidates and progress never block the solver or touch Swing from its
+// thread: each is parked in a coalescing slot (a newer one replaces one not
+// yet drawn) that a Swing Timer drains on the event thread at its own frame
+// rate. Candidates are also recorded so the run can be replayed step by step
+// afterwards. Anytime improvements go through a slot the same way and are
+// drawn as the result route, with their cost and bound.
+public class RenderListener implements SolveListener {
+    private static final int FRAME_MS = 16;
+    // Candidates kept for replay; past this every other one is dropped
+    private static final int MAX_REPLAY = 256;
+
+    private final MazeFrame frame;
+    private final MazeData data;
+    private volatile boolean showedCandidates;
+
+    private final AtomicReference<int[]> pendingCandidate = new AtomicReference<>();
+    private final AtomicReference<SolveResult> pendingProgress = new AtomicReference<>();
+    private final AtomicReference<Improvement> pendingImprovement = new AtomicReference<>();
+    private volatile boolean ticking;
+    private final Timer ticker;
+    private final List<int[]> history = new ArrayList<>();
+    private int recordStride = 1;
+    private int recorded;
+    private int[] shown;  // candidate currently marked, event thread only
+    private int[] improved;  // improvement currently marked as result, event thread only
+
+    private static final class Improvement {
+        final int[] path;
+        final int cost;
+        final double bound;
+
+        Improvement(int[] path, int cost, double bound) {
+            this.path = path;
+            this.cost = cost;
+            this.bound = bound;
+        }
+    }
+
+    public RenderListener(MazeFrame frame, MazeData data) {
+        this.frame = frame;
+        this.data = data;
+        this.ticker = new Timer(FRAME_MS, e -> drawPending());
+    }
+
+    @Override
+    public void onVisit(int cell) {
+        data.setPath(cell, true);
+        frame.renderCell(cell);
+        int delay = frame.getDelayMs();
+        if (delay > 0) MazeUtil.pause(delay);
+    }
+
+    @Override
+    public void onCandidate(int[] path) {
+        showedCandidates = true;
+        startTicker();
+        record(path);
+        pendingCandidate.set(path);
+    }
+
+    @Override
+    public void onImprovement(int[] path, int cost, double bound) {
+        startTicker();
+        pendingImprovement.set(new Improvement(path, cost, bound));
+    }
+
+    // Solver thread: parked for the ticker, which draws it on the event thread
+    @Override
+    public void onProgress(SolveResult partial) {
+        startTicker();
+        pendingProgress.set(partial);
+    }
+
+    // Paint the final route and metrics once the solver returns. Runs on the
+    // event thread after any frame the ticker still had queued.
+    public void finish(SolveResult result) {
+        SwingUtilities.invokeLater(() -> {
+            ticker.stop();
+            pendingCandidate.set(null);
+            pendingProgress.set(null);
+            pendingImprovement.set(null);
+            // GA runs only show the finished route, searches keep their explored cells
+            if (showedCandidates) data.clearMarks();
+            if (improved != null) {
+                for (int cell : improved) data.setResult(cell, false);
+            }
+            if (result.path != null) {
+                for (int cell : result.path) data.setResult(cell, true);
+            }
+            frame.render(data);
+            frame.updateMetrics(result.cost, result.steps, result.visited, result.timeMs(), result.algorithm);
+            frame.updateSolveMetrics(result.metrics);
+            if (showedCandidates && !history.isEmpty()) {
+                frame.setReplay(new CandidateReplay(frame, data, history, result.path));
+            }
+        });
+    }
+
+    // The run was cancelled by a reset: stop drawing and leave the frame as is
+    public void abandon() {
+        SwingUtilities.invokeLater(() -> {
+            ticker.stop();
+            pendingCandidate.set(null);
+            pendingProgress.set(null);
+            pendingImprovement.set(null);
+        });
+    }
+
+    // Event thread: show the newest candidate and metrics, if any arrived
+    private void drawPending() {
+        int[] path = pendingCandidate.getAndSet(null);
+        if (path != null) {
+            // Swap marks cell by cell so only the two candidates get redrawn
+            if (shown != null) {
+                for (int cell : shown) {
+                    data.setPath(cell, false);
+                    frame.renderCell(cell);
+                }
+            }
+            for (int cell : path) {
+                data.setPath(cell, true);
+                frame.renderCell(cell);
+            }
+            shown = path;
+        }
+        SolveResult partial = pendingProgress.getAndSet(null);
+        if (partial != null) {
+            frame.updateMetrics(partial.cost, partial.steps, partial.visited, partial.timeMs(), partial.algorithm);
+        }
+        Improvement better = pendingImprovement.getAndSet(null);
+        if (better != null) {
+            if (improved != null) {
+                for (int cell : improved) {
+                    data.setResult(cell, false);
+                    frame.renderCell(cell);
+                }
+            }
+            for (int cell : better.path) {
+                data.setResult(cell, true);
+                frame.renderCell(cell);
+            }
+            improved = better.path;
+            frame.updateImprovement(better.cost, better.path.length, better.bound);
+        }
+    }
+
+    // Solver thread; the first candidate, progress or improvement starts the frame timer
+    private void startTicker() {
+        if (!ticking) {
+            ticking = true;
+            ticker.start();
+        }
+    }
+
+    // Solver thread; the history is handed over only in finish
+    private void record(int[] path) {
+        if (recorded++ % recordStride != 0) return;
+        history.add(path);
+        if (history.size() > MAX_REPLAY) {
+            int kept = 0;
+            for (int i = 0; i < history.size(); i += 2) history.set(kept++, history.get(i));
+            history.subList(kept, history.size()).clear();
+            recordStride *= 2;
+        }
+    }
+}